@@ -0,0 +1,23 @@
+package br.com.saldoamigo.config;
+
+import br.com.saldoamigo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Liga o cabeçalho Idempotency-Key nos POST e PUT e a limpeza periódica das chaves expiradas
+@Configuration
+@EnableScheduling
+public class IdempotencyConfig {
+
+    // Depois do filtro do Spring Security, que já identificou o usuário dono da chave
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, objectMapper));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
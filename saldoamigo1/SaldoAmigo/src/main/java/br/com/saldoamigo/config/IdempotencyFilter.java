@@ -0,0 +1,217 @@
+package br.com.saldoamigo.config;
+
+import br.com.saldoamigo.service.IdempotencyService;
+import br.com.saldoamigo.service.IdempotencyService.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// POST e PUT com o cabeçalho Idempotency-Key: a primeira requisição é executada e a resposta guardada;
+// as repetições com a mesma chave recebem a resposta guardada, sem chegar aos controllers.
+// Roda depois do Spring Security, para separar as chaves por usuário. Só corpos JSON são considerados,
+// o que deixa de fora a importação de arquivos.
+class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper;
+
+    IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"POST".equals(method) && !"PUT".equals(method)) return true;
+        if (request.getHeader(IDEMPOTENCY_KEY) == null) return true;
+        if (request.getRequestURI().startsWith(request.getContextPath() + "/auth/")) return true;
+        String contentType = request.getContentType();
+        return contentType != null && !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            error(request, response, HttpStatus.BAD_REQUEST, "Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres!");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String scope = scope();
+        String requestHash = hash(request, body);
+
+        StoredResponse stored = idempotencyService.find(scope, key);
+        if (stored == null && !idempotencyService.reserve(scope, key, requestHash)) {
+            stored = idempotencyService.find(scope, key);
+            if (stored == null) {
+                error(request, response, HttpStatus.CONFLICT, "Requisição com esta Idempotency-Key ainda em processamento!");
+                return;
+            }
+        }
+        if (stored != null) {
+            if (!stored.requestHash().equals(requestHash)) {
+                error(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada em outra requisição!");
+            } else if (stored.inProgress()) {
+                error(request, response, HttpStatus.CONFLICT, "Requisição com esta Idempotency-Key ainda em processamento!");
+            } else {
+                replay(stored, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyService.release(scope, key);
+            throw e;
+        }
+        // Erros do servidor não são guardados: a repetição deve poder tentar de novo
+        if (responseWrapper.getStatus() < 500) {
+            idempotencyService.complete(scope, key, new StoredResponse(requestHash, responseWrapper.getStatus(),
+                    responseWrapper.getContentType(), responseWrapper.getHeader(HttpHeaders.ETAG),
+                    responseWrapper.getHeader(HttpHeaders.LOCATION), responseWrapper.getContentAsByteArray()));
+        } else {
+            idempotencyService.release(scope, key);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+
+    private static String hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        if (stored.etag() != null) response.setHeader(HttpHeaders.ETAG, stored.etag());
+        if (stored.location() != null) response.setHeader(HttpHeaders.LOCATION, stored.location());
+        response.setHeader(REPLAYED, "true");
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void error(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", new Date());
+        body.put("message", message);
+        body.put("details", "uri=" + request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Corpo já lido para o hash, devolvido aos próximos filtros e ao controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // O corpo já está todo em memória: disponível e lido de uma vez
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.saldoamigo.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+// Contadores do Hibernate da requisição corrente. As estatísticas do Hibernate são globais e
+// misturam requisições concorrentes; aqui cada thread de requisição tem os seus, preenchidos por
+// um SessionEventListener (comandos e cache de 2º nível) e por um PostLoadEventListener (entidades).
+// Consultas feitas fora da thread da requisição (fluxos reativos, exportação) não são contadas.
+final class JpaRequestStatistics {
+
+    private static final ThreadLocal<JpaRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    long statements;
+
+    long entityLoads;
+
+    long cacheHits;
+
+    long cacheMisses;
+
+    static JpaRequestStatistics begin() {
+        JpaRequestStatistics statistics = new JpaRequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // Instanciado pelo Hibernate a cada sessão (hibernate.session.events.auto)
+    public static class SessionListener implements SessionEventListener {
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            JpaRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) statistics.statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            JpaRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) statistics.statements++;
+        }
+
+        @Override
+        public void cacheGetEnd(boolean hit) {
+            JpaRequestStatistics statistics = CURRENT.get();
+            if (statistics == null) return;
+            if (hit) statistics.cacheHits++;
+            else statistics.cacheMisses++;
+        }
+    }
+
+    static final class EntityLoadIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, new EntityLoadListener());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+
+    private static final class EntityLoadListener implements PostLoadEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            JpaRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) statistics.entityLoads++;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.saldoamigo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Publica, por requisição, quantos comandos SQL, entidades carregadas e acessos ao cache de 2º nível
+// ela gerou, com as mesmas tags method/uri do http.server.requests
+class JpaRequestStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    JpaRequestStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        JpaRequestStatistics statistics = JpaRequestStatistics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            JpaRequestStatistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+            record("hibernate.request.statements", "Comandos SQL executados na requisição", tags, statistics.statements);
+            record("hibernate.request.entity.loads", "Entidades carregadas na requisição", tags, statistics.entityLoads);
+            record("hibernate.request.second.level.cache.hits", "Acertos no cache de 2º nível na requisição", tags, statistics.cacheHits);
+            record("hibernate.request.second.level.cache.misses", "Faltas no cache de 2º nível na requisição", tags, statistics.cacheMisses);
+        }
+    }
+
+    private void record(String name, String description, Tags tags, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.saldoamigo.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+// Métricas expostas em /actuator/metrics e /actuator/prometheus. Os histogramas de percentis são
+// ligados em management.metrics.distribution.percentiles-histogram; o pool do Hikari
+// (hikaricp.connections.*) e as estatísticas globais do Hibernate (hibernate.*) vêm do Spring Boot.
+@Configuration
+public class ObservabilityConfig {
+
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    // Acrescenta ao http.server.requests a tag handler, com o controller e o método que atenderam
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jpaRequestStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JpaRequestStatistics.SessionListener.class.getName());
+            properties.put(INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new JpaRequestStatistics.EntityLoadIntegrator()));
+        };
+    }
+
+    // Antes do filtro do Spring Security, para contar também as consultas da autenticação
+    @Bean
+    public FilterRegistrationBean<JpaRequestStatisticsFilter> jpaRequestStatisticsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<JpaRequestStatisticsFilter> registration = new FilterRegistrationBean<>(new JpaRequestStatisticsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return KeyValue.of("handler", "none");
+    }
+}
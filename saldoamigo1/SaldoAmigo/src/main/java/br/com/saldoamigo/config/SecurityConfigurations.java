@@ -33,7 +33,9 @@ public class SecurityConfigurations {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE",
                 "OPTIONS", "HEAD", "TRACE", "CONNECT"));
         configuration.setAllowCredentials(true);
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "Idempotency-Key",
+                "If-Match", "If-None-Match"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Location", "Idempotent-Replayed"));
         UrlBasedCorsConfigurationSource source =  new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -1,6 +1,6 @@
 package br.com.saldoamigo.config;
 
-import br.com.saldoamigo.repository.UserRepository;
+import br.com.saldoamigo.service.PrincipalCacheService;
 import br.com.saldoamigo.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,14 +22,14 @@ public class SecurityFilter extends OncePerRequestFilter {
     private TokenService tokenService;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCacheService principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null) {
             var login = tokenService.validateToken(token);
-            UserDetails user = userRepository.findByEmail(login);
+            UserDetails user = login.isEmpty() ? null : principalCache.findByEmail(login);
             if (user != null) {
                 var authorities = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authorities);
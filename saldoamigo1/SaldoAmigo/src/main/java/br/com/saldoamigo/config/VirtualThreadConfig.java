@@ -0,0 +1,51 @@
+package br.com.saldoamigo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Ativa com spring.threads.virtual.enabled=true (Java 21+): Tomcat, @Async e o executor padrão
+// passam a usar threads virtuais pelo próprio Spring Boot; aqui ficam apenas os diagnósticos.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Thread virtual presa à portadora (synchronized, código nativo) por mais que o limite:
+    // conta em jvm.threads.virtual.pinned e registra o topo da pilha
+    @Bean(destroyMethod = "close")
+    public RecordingStream pinnedThreadRecording(MeterRegistry meterRegistry,
+                                                 @Value("${saldoamigo.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Threads virtuais presas à thread portadora acima do limite")
+                .register(meterRegistry);
+
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                    .limit(8)
+                    .map(RecordedFrame::getMethod)
+                    .map(method -> method.getType().getName() + "." + method.getName())
+                    .collect(Collectors.joining(" <- "));
+            log.warn("Thread virtual presa por {} ms: {}", event.getDuration().toMillis(), frames);
+        });
+        stream.startAsync();
+        return stream;
+    }
+}
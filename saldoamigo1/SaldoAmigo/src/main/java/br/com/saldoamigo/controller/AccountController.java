@@ -17,10 +17,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.LinkRelation;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Accounts", description = "Endpoint usado para operações relacionadas a contas")
 @RestController
@@ -47,17 +48,20 @@ public class AccountController {
     public ResponseEntity<AccountDto> findById(@PathVariable(name = "id") @Parameter(description = "ID da conta a ser buscada") Long id) {
         AccountDto account = service.findById(id);
         buildSelfLink(account);  // Adiciona o link da conta
-        return new ResponseEntity<>(account, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(account.getVersion())).cacheControl(ETags.revalidate()).body(account);
     }
 
     @PutMapping
     @Operation(summary = "Atualiza as informações de uma conta", description = "Atualiza uma conta existente com as novas informações fornecidas.")
     @ApiResponse(responseCode = "200", description = "Conta atualizada com sucesso", content = @Content(schema = @Schema(implementation = AccountDto.class)))
     @ApiResponse(responseCode = "400", description = "Erro na validação dos dados")
-    public ResponseEntity<AccountDto> update(@RequestBody @Parameter(description = "Objeto contendo as informações da conta a ser atualizada") AccountDto accountDto) {
-        AccountDto account = service.update(accountDto);
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    public ResponseEntity<AccountDto> update(
+            @RequestBody @Parameter(description = "Objeto contendo as informações da conta a ser atualizada") AccountDto accountDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag obtido na consulta; se informado, só atualiza se a conta não tiver mudado") String ifMatch) {
+        AccountDto account = service.update(accountDto, ETags.expectedVersion(ifMatch));
         buildSelfLink(account);  // Adiciona o link da conta
-        return new ResponseEntity<>(account, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(account.getVersion())).body(account);
     }
 
     @DeleteMapping("/{id}")
@@ -81,7 +85,7 @@ public class AccountController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
         Page<AccountDto> accounts = service.findAll(pageable);
-        accounts.forEach(this::buildSelfLink);
+        buildSelfLinks(accounts);
         return new ResponseEntity(assembler.toModel(accounts), HttpStatus.OK);
     }
 
@@ -98,7 +102,7 @@ public class AccountController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
         Page<AccountDto> accounts = service.findByName(name, pageable);
-        accounts.forEach(this::buildSelfLink);
+        buildSelfLinks(accounts);
         return new ResponseEntity(assembler.toModel(accounts), HttpStatus.OK);
     }
 
@@ -115,7 +119,7 @@ public class AccountController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "city"));
         Page<AccountDto> accounts = service.findByCity(city, pageable);
-        accounts.forEach(this::buildSelfLink);
+        buildSelfLinks(accounts);
         return new ResponseEntity(assembler.toModel(accounts), HttpStatus.OK);
     }
 
@@ -132,7 +136,7 @@ public class AccountController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "pixKey"));
         Page<AccountDto> accounts = service.findByPixKey(pixKey, pageable);
-        accounts.forEach(this::buildSelfLink);
+        buildSelfLinks(accounts);
         return new ResponseEntity(assembler.toModel(accounts), HttpStatus.OK);
     }
 
@@ -144,18 +148,26 @@ public class AccountController {
             @RequestParam(value = "page", defaultValue = "0") @Parameter(description = "Número da página para paginação") int page,
             @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
             @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction,
-            PagedResourcesAssembler<AccountDto> assembler
+            PagedResourcesAssembler<AccountDto> assembler,
+            WebRequest request
     ) {
+        // Sem alterações desde o último ETag: responde 304 sem buscar a página
+        if (request.checkNotModified(service.etagByUserId(userId))) {
+            return null;
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "user"));
         Page<AccountDto> accounts = service.findByUserId(userId, pageable);
-        accounts.forEach(this::buildSelfLink);
-        return new ResponseEntity(assembler.toModel(accounts), HttpStatus.OK);
+        buildSelfLinks(accounts);
+        return new ResponseEntity(assembler.toModel(accounts), ETags.revalidateHeaders(), HttpStatus.OK);
     }
 
     private void buildSelfLink(AccountDto account) {
-        account.add(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AccountController.class).findById(account.getId()))
-                .withSelfRel()
-                .withType("GET"));
+        account.add(SelfLinks.of(AccountController.class).to(account.getId()).withType("GET"));
+    }
+
+    private void buildSelfLinks(Iterable<AccountDto> accounts) {
+        SelfLinks links = SelfLinks.of(AccountController.class);
+        accounts.forEach(account -> account.add(links.to(account.getId()).withType("GET")));
     }
 }
@@ -5,6 +5,8 @@ import br.com.saldoamigo.dto.LoginResponseDto;
 import br.com.saldoamigo.dto.UserDto;
 import br.com.saldoamigo.model.UserModel;
 import br.com.saldoamigo.repository.UserRepository;
+import br.com.saldoamigo.service.PrincipalCacheService;
+import br.com.saldoamigo.service.UsernameIndexService;
 import br.com.saldoamigo.service.TokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,6 +38,12 @@ public class AuthenticationController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private UsernameIndexService usernameIndex;
+
     @Operation(summary = "Realiza o login do usuário")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login realizado com sucesso"),
@@ -77,6 +85,8 @@ public class AuthenticationController {
         newUser.setRole(data.getRole());
 
         this.repository.save(newUser);
+        this.principalCache.evict(newUser.getEmail());
+        this.usernameIndex.put(newUser.getId(), newUser.getUsername());
 
         return ResponseEntity.ok("Usuário cadastrado com sucesso.");
     }
@@ -0,0 +1,43 @@
+package br.com.saldoamigo.controller;
+
+import br.com.saldoamigo.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+// ETag forte: versão da entidade nos recursos individuais e ListVersion nas listagens
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // O navegador pode guardar a resposta, mas revalida com If-None-Match antes de usá-la
+    static CacheControl revalidate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    static HttpHeaders revalidateHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(revalidate());
+        return headers;
+    }
+
+    // Versão esperada a partir do If-Match; null quando ausente ou "*"
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match inválido!");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido!");
+        }
+    }
+}
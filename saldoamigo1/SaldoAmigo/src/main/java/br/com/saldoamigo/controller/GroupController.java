@@ -1,7 +1,11 @@
 package br.com.saldoamigo.controller;
 
 import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.GroupReportDto;
+import br.com.saldoamigo.dto.GroupSummaryDto;
+import br.com.saldoamigo.service.GroupEventService;
 import br.com.saldoamigo.service.GroupService;
+import br.com.saldoamigo.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,9 +21,15 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.YearMonth;
 
 @Tag(name = "Groups", description = "Endpoint usado para operações que envolvem grupos")
 @RestController
@@ -29,6 +39,12 @@ public class GroupController {
     @Autowired
     private GroupService service;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private GroupEventService eventService;
+
     @PostMapping
     @Operation(summary = "Cria um novo grupo", description = "Cria um novo grupo na base de dados com as informações fornecidas.")
     @ApiResponse(responseCode = "201", description = "Grupo criado com sucesso", content = @Content(schema = @Schema(implementation = GroupDto.class)))
@@ -46,17 +62,61 @@ public class GroupController {
     public ResponseEntity<GroupDto> findById(@PathVariable(name = "id") @Parameter(description = "ID do grupo a ser buscado") Long id) {
         GroupDto group = service.findById(id);
         buildSelfLink(group);  // Adiciona o link do grupo
-        return new ResponseEntity<>(group, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(group.getVersion())).cacheControl(ETags.revalidate()).body(group);
+    }
+
+    @GetMapping("/{id}/summary")
+    @Operation(summary = "Resumo de saldos do grupo", description = "Retorna o total do grupo, o total por conta e o saldo líquido de cada conta, calculados no banco de dados.")
+    @ApiResponse(responseCode = "200", description = "Resumo do grupo", content = @Content(schema = @Schema(implementation = GroupSummaryDto.class)))
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<GroupSummaryDto> summary(@PathVariable(name = "id") @Parameter(description = "ID do grupo") Long id) {
+        GroupSummaryDto summary = service.summary(id);
+        summary.add(
+                WebMvcLinkBuilder.linkTo(
+                        WebMvcLinkBuilder.methodOn(this.getClass()).summary(id)
+                ).withSelfRel()
+        );
+        return new ResponseEntity<>(summary, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/report")
+    @Operation(summary = "Relatório do grupo por período", description = "Retorna o total do grupo e de cada conta por mês, trimestre ou ano, a partir dos totais mensais mantidos no banco de dados.")
+    @ApiResponse(responseCode = "200", description = "Relatório do grupo", content = @Content(schema = @Schema(implementation = GroupReportDto.class)))
+    @ApiResponse(responseCode = "400", description = "Período ou granularidade inválidos")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<GroupReportDto> report(
+            @PathVariable(name = "id") @Parameter(description = "ID do grupo") Long id,
+            @RequestParam(value = "from", required = false) @Parameter(description = "Mês inicial (yyyy-MM); padrão: 11 meses antes do mês final") YearMonth from,
+            @RequestParam(value = "to", required = false) @Parameter(description = "Mês final (yyyy-MM); padrão: mês atual") YearMonth to,
+            @RequestParam(value = "granularity", defaultValue = "month") @Parameter(description = "Tamanho dos períodos (month, quarter ou year)") String granularity) {
+        GroupReportDto report = service.report(id, from, to, granularity);
+        report.add(
+                WebMvcLinkBuilder.linkTo(
+                        WebMvcLinkBuilder.methodOn(this.getClass()).report(id, from, to, granularity)
+                ).withSelfRel()
+        );
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Eventos das transações do grupo", description = "Fluxo SSE com as transações criadas (created), alteradas (updated) e removidas (deleted) no grupo. O evento reload indica que a lista deve ser buscada de novo.")
+    @ApiResponse(responseCode = "200", description = "Fluxo de eventos do grupo")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public SseEmitter events(@PathVariable(name = "id") @Parameter(description = "ID do grupo") Long id) {
+        return eventService.emitter(id);
     }
 
     @PutMapping
     @Operation(summary = "Atualiza as informações de um grupo", description = "Atualiza um grupo existente com as novas informações fornecidas.")
     @ApiResponse(responseCode = "200", description = "Grupo atualizado com sucesso", content = @Content(schema = @Schema(implementation = GroupDto.class)))
     @ApiResponse(responseCode = "400", description = "Erro na validação dos dados")
-    public ResponseEntity<GroupDto> update(@RequestBody @Parameter(description = "Objeto contendo as informações do grupo a ser atualizado") GroupDto groupDto) {
-        GroupDto group = service.update(groupDto);
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    public ResponseEntity<GroupDto> update(
+            @RequestBody @Parameter(description = "Objeto contendo as informações do grupo a ser atualizado") GroupDto groupDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag obtido na consulta; se informado, só atualiza se o grupo não tiver mudado") String ifMatch) {
+        GroupDto group = service.update(groupDto, ETags.expectedVersion(ifMatch));
         buildSelfLink(group);  // Adiciona o link do grupo
-        return new ResponseEntity<>(group, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(group.getVersion())).body(group);
     }
 
     @DeleteMapping("/{id}")
@@ -68,6 +128,15 @@ public class GroupController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @DeleteMapping("/{id}/transactions")
+    @Operation(summary = "Deleta as transações de um grupo", description = "Deleta todas as transações do grupo com o ID especificado em um único comando, mantendo o grupo.")
+    @ApiResponse(responseCode = "204", description = "Transações do grupo deletadas com sucesso")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<Void> deleteTransactions(@PathVariable(name = "id") @Parameter(description = "ID do grupo") Long id) {
+        transactionService.deleteByGroupId(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     @GetMapping
     @Operation(summary = "Busca todos os grupos com paginação", description = "Retorna uma lista de grupos com suporte a paginação e ordenação.")
     @ApiResponse(responseCode = "200", description = "Lista de grupos", content = @Content(schema = @Schema(implementation = GroupDto.class)))
@@ -80,7 +149,7 @@ public class GroupController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
         Page<GroupDto> groups = service.findAll(pageable);
-        groups.forEach(this::buildSelfLink);
+        buildSelfLinks(groups);
         return new ResponseEntity(assembler.toModel(groups), HttpStatus.OK);
     }
 
@@ -97,7 +166,7 @@ public class GroupController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
         Page<GroupDto> groups = service.findByName(name, pageable);
-        groups.forEach(this::buildSelfLink);
+        buildSelfLinks(groups);
         return new ResponseEntity(assembler.toModel(groups), HttpStatus.OK);
     }
 
@@ -109,22 +178,28 @@ public class GroupController {
             @RequestParam(value = "page", defaultValue = "0") @Parameter(description = "Número da página para paginação") int page,
             @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
             @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction,
-            PagedResourcesAssembler<GroupDto> assembler
+            PagedResourcesAssembler<GroupDto> assembler,
+            WebRequest request
     ) {
+        // Sem alterações desde o último ETag: responde 304 sem buscar a página
+        if (request.checkNotModified(service.etagByUserId(userId))) {
+            return null;
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "user"));
         Page<GroupDto> groups = service.findByUserId(userId, pageable); // Alterando para GroupDto
-        groups.forEach(this::buildSelfLink);
-        return new ResponseEntity(assembler.toModel(groups), HttpStatus.OK);
+        buildSelfLinks(groups);
+        return new ResponseEntity(assembler.toModel(groups), ETags.revalidateHeaders(), HttpStatus.OK);
     }
 
 
     private void buildSelfLink(GroupDto groupDto) {
-        groupDto.add(
-                WebMvcLinkBuilder.linkTo(
-                        WebMvcLinkBuilder.methodOn(this.getClass()).findById(groupDto.getId())
-                ).withSelfRel()
-        );
+        groupDto.add(SelfLinks.of(GroupController.class).to(groupDto.getId()));
+    }
+
+    private void buildSelfLinks(Iterable<GroupDto> groups) {
+        SelfLinks links = SelfLinks.of(GroupController.class);
+        groups.forEach(group -> group.add(links.to(group.getId())));
     }
 
     private void buildCollectionLink(CollectionModel<GroupDto> groupCollection) {
@@ -0,0 +1,24 @@
+package br.com.saldoamigo.controller;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+// Links "self" dos recursos /{id} de um controller. A base (host, X-Forwarded-*, context path e
+// @RequestMapping) é resolvida uma vez por requisição; cada link só concatena o id, sem o proxy
+// do methodOn nem a expansão do template por elemento.
+final class SelfLinks {
+
+    private final String prefix;
+
+    private SelfLinks(String prefix) {
+        this.prefix = prefix;
+    }
+
+    static SelfLinks of(Class<?> controller) {
+        return new SelfLinks(WebMvcLinkBuilder.linkTo(controller).toUri().toString() + "/");
+    }
+
+    Link to(long id) {
+        return Link.of(prefix + id).withSelfRel();
+    }
+}
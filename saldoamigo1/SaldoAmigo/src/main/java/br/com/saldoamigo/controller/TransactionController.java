@@ -1,7 +1,12 @@
 package br.com.saldoamigo.controller;
 
+import br.com.saldoamigo.dto.CursorSliceDto;
 import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.ImportReportDto;
+import br.com.saldoamigo.dto.TransactionCursor;
 import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.service.TransactionExportService;
+import br.com.saldoamigo.service.TransactionImportService;
 import br.com.saldoamigo.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,13 +17,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 
 @Tag(name = "Transactions", description = "Endpoint usado para operações relacionadas a transações")
 @RestController
@@ -28,6 +42,12 @@ public class TransactionController {
     @Autowired
     private TransactionService service;
 
+    @Autowired
+    private TransactionImportService importService;
+
+    @Autowired
+    private TransactionExportService exportService;
+
     @PostMapping
     @Operation(summary = "Cria uma nova transação", description = "Cria uma nova transação na base de dados com as informações fornecidas.")
     @ApiResponse(responseCode = "201", description = "Transação criada com sucesso", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
@@ -38,6 +58,43 @@ public class TransactionController {
         return new ResponseEntity<>(transaction, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Importa transações em lote", description = "Lê o corpo da requisição em fluxo (CSV com colunas valor, data, conta e grupo, ou NDJSON) e grava as transações em lotes, retornando um relatório de erros por linha.")
+    @ApiResponse(responseCode = "200", description = "Relatório da importação", content = @Content(schema = @Schema(implementation = ImportReportDto.class)))
+    public ResponseEntity<ImportReportDto> importTransactions(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        ImportReportDto report = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? importService.importNdjson(body)
+                : importService.importCsv(body);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @GetMapping("/export/group/{groupId}")
+    @Operation(summary = "Exporta as transações de um grupo", description = "Envia todas as transações do grupo em fluxo (CSV ou NDJSON), lidas do banco por cursor.")
+    @ApiResponse(responseCode = "200", description = "Arquivo com as transações do grupo")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    public ResponseEntity<StreamingResponseBody> exportByGroupId(
+            @PathVariable Long groupId,
+            @RequestParam(value = "format", defaultValue = "csv") @Parameter(description = "Formato do arquivo (csv ou ndjson)") String format
+    ) {
+        StreamingResponseBody body = exportService.exportByGroupId(groupId, format);
+        return buildExportResponse(body, "group-" + groupId, format);
+    }
+
+    @GetMapping("/export/account/{accountId}")
+    @Operation(summary = "Exporta as transações de uma conta", description = "Envia todas as transações da conta em fluxo (CSV ou NDJSON), lidas do banco por cursor.")
+    @ApiResponse(responseCode = "200", description = "Arquivo com as transações da conta")
+    @ApiResponse(responseCode = "404", description = "Conta não encontrada")
+    public ResponseEntity<StreamingResponseBody> exportByAccountId(
+            @PathVariable Long accountId,
+            @RequestParam(value = "format", defaultValue = "csv") @Parameter(description = "Formato do arquivo (csv ou ndjson)") String format
+    ) {
+        StreamingResponseBody body = exportService.exportByAccountId(accountId, format);
+        return buildExportResponse(body, "account-" + accountId, format);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Busca uma transação pelo ID", description = "Retorna as informações da transação com o ID especificado.")
     @ApiResponse(responseCode = "200", description = "Transação encontrada", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
@@ -45,17 +102,20 @@ public class TransactionController {
     public ResponseEntity<TransactionDto> findById(@PathVariable(name = "id") @Parameter(description = "ID da transação a ser buscada") Long id) {
         TransactionDto transaction = service.findById(id);
         buildSelfLink(transaction);  // Adiciona o link da transação
-        return new ResponseEntity<>(transaction, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(transaction.getVersion())).cacheControl(ETags.revalidate()).body(transaction);
     }
 
     @PutMapping
     @Operation(summary = "Atualiza as informações de uma transação", description = "Atualiza uma transação existente com as novas informações fornecidas.")
     @ApiResponse(responseCode = "200", description = "Transação atualizada com sucesso", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
     @ApiResponse(responseCode = "400", description = "Erro na validação dos dados")
-    public ResponseEntity<TransactionDto> update(@RequestBody @Parameter(description = "Objeto contendo as informações da transação a ser atualizada") TransactionDto transactionDto) {
-        TransactionDto transaction = service.update(transactionDto);
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    public ResponseEntity<TransactionDto> update(
+            @RequestBody @Parameter(description = "Objeto contendo as informações da transação a ser atualizada") TransactionDto transactionDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag obtido na consulta; se informado, só atualiza se a transação não tiver mudado") String ifMatch) {
+        TransactionDto transaction = service.update(transactionDto, ETags.expectedVersion(ifMatch));
         buildSelfLink(transaction);  // Adiciona o link da transação
-        return new ResponseEntity<>(transaction, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(transaction.getVersion())).body(transaction);
     }
 
     @DeleteMapping("/{id}")
@@ -67,6 +127,16 @@ public class TransactionController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @DeleteMapping
+    @Operation(summary = "Deleta várias transações", description = "Deleta as transações com os IDs especificados em um único comando. Se algum ID não existir, nenhuma transação é deletada.")
+    @ApiResponse(responseCode = "204", description = "Transações deletadas com sucesso")
+    @ApiResponse(responseCode = "400", description = "Nenhum ID ou IDs demais na requisição")
+    @ApiResponse(responseCode = "404", description = "Alguma transação não encontrada")
+    public ResponseEntity<Void> deleteAll(@RequestParam(name = "ids") @Parameter(description = "IDs das transações a serem deletadas, separados por vírgula (até 1000)") List<Long> ids) {
+        service.deleteAll(ids);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     @GetMapping
     @Operation(summary = "Busca todas as transações com paginação", description = "Retorna uma lista de transações com suporte a paginação e ordenação.")
     @ApiResponse(responseCode = "200", description = "Lista de transações", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
@@ -79,10 +149,24 @@ public class TransactionController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? org.springframework.data.domain.Sort.Direction.DESC : org.springframework.data.domain.Sort.Direction.ASC;
         Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortDirection, "date"));
         Page<TransactionDto> transactions = service.findAll(pageable);
-        transactions.forEach(this::buildSelfLink);
+        buildSelfLinks(transactions);
         return new ResponseEntity(assembler.toModel(transactions), HttpStatus.OK);
     }
 
+    @GetMapping(value = "", params = "after")
+    @Operation(summary = "Busca todas as transações por cursor", description = "Retorna uma fatia de transações ordenada por data e ID a partir do cursor informado, sem contagem total.")
+    @ApiResponse(responseCode = "200", description = "Lista de transações encontradas", content = @Content(schema = @Schema(implementation = CursorSliceDto.class)))
+    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    public ResponseEntity<CursorSliceDto<TransactionDto>> findAllAfter(
+            @RequestParam(value = "after") @Parameter(description = "Cursor devolvido pela página anterior (vazio para a primeira página)") String after,
+            @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Slice<TransactionDto> transactions = service.findAfter(TransactionCursor.decode(after), size, sortDirection);
+        return new ResponseEntity<>(buildCursorSlice(transactions), HttpStatus.OK);
+    }
+
     @GetMapping("/find/account/{accountId}")
     @Operation(summary = "Busca transações pela conta", description = "Retorna uma lista de transações associadas à conta fornecida.")
     @ApiResponse(responseCode = "200", description = "Lista de transações encontradas", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
@@ -96,10 +180,25 @@ public class TransactionController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? org.springframework.data.domain.Sort.Direction.DESC : org.springframework.data.domain.Sort.Direction.ASC;
         Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortDirection, "date"));
         Page<TransactionDto> transactions = service.findByAccountId(accountId, pageable);
-        transactions.forEach(this::buildSelfLink);
+        buildSelfLinks(transactions);
         return new ResponseEntity(assembler.toModel(transactions), HttpStatus.OK);
     }
 
+    @GetMapping(value = "/find/account/{accountId}", params = "after")
+    @Operation(summary = "Busca transações pela conta por cursor", description = "Retorna uma fatia de transações da conta ordenada por data e ID a partir do cursor informado, sem contagem total.")
+    @ApiResponse(responseCode = "200", description = "Lista de transações encontradas", content = @Content(schema = @Schema(implementation = CursorSliceDto.class)))
+    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    public ResponseEntity<CursorSliceDto<TransactionDto>> findByAccountIdAfter(
+            @PathVariable Long accountId,
+            @RequestParam(value = "after") @Parameter(description = "Cursor devolvido pela página anterior (vazio para a primeira página)") String after,
+            @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Slice<TransactionDto> transactions = service.findByAccountIdAfter(accountId, TransactionCursor.decode(after), size, sortDirection);
+        return new ResponseEntity<>(buildCursorSlice(transactions), HttpStatus.OK);
+    }
+
     @GetMapping("/find/date/{date}")
     @Operation(summary = "Busca transações por data", description = "Retorna uma lista de transações para a data fornecida.")
     @ApiResponse(responseCode = "200", description = "Lista de transações encontradas", content = @Content(schema = @Schema(implementation = TransactionDto.class)))
@@ -113,7 +212,7 @@ public class TransactionController {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? org.springframework.data.domain.Sort.Direction.DESC : org.springframework.data.domain.Sort.Direction.ASC;
         Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortDirection, "date"));
         Page<TransactionDto> transactions = service.findByDate(date, pageable);
-        transactions.forEach(this::buildSelfLink);
+        buildSelfLinks(transactions);
         return new ResponseEntity(assembler.toModel(transactions), HttpStatus.OK);
     }
 
@@ -125,20 +224,58 @@ public class TransactionController {
             @RequestParam(value = "page", defaultValue = "0") @Parameter(description = "Número da página para paginação") int page,
             @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
             @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction,
-            PagedResourcesAssembler<TransactionDto> assembler
+            PagedResourcesAssembler<TransactionDto> assembler,
+            WebRequest request
     ) {
+        // Sem alterações desde o último ETag: responde 304 sem buscar a página
+        if (request.checkNotModified(service.etagByGroupId(groupId))) {
+            return null;
+        }
         var sortDirection = "desc".equalsIgnoreCase(direction) ? org.springframework.data.domain.Sort.Direction.DESC : org.springframework.data.domain.Sort.Direction.ASC;
-        Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortDirection, "date"));
+        Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(sortDirection, "date", "id"));
         Page<TransactionDto> transactions = service.findByGroupId(groupId, pageable);
-        transactions.forEach(this::buildSelfLink);
-        return new ResponseEntity(assembler.toModel(transactions), HttpStatus.OK);
+        buildSelfLinks(transactions);
+        return new ResponseEntity(assembler.toModel(transactions), ETags.revalidateHeaders(), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/find/group/{groupId}", params = "after")
+    @Operation(summary = "Busca transações pelo grupo por cursor", description = "Retorna uma fatia de transações do grupo ordenada por data e ID a partir do cursor informado, sem contagem total.")
+    @ApiResponse(responseCode = "200", description = "Lista de transações encontradas", content = @Content(schema = @Schema(implementation = CursorSliceDto.class)))
+    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    public ResponseEntity<CursorSliceDto<TransactionDto>> findByGroupIdAfter(
+            @PathVariable Long groupId,
+            @RequestParam(value = "after") @Parameter(description = "Cursor devolvido pela página anterior (vazio para a primeira página)") String after,
+            @RequestParam(value = "size", defaultValue = "10") @Parameter(description = "Número de itens por página") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Slice<TransactionDto> transactions = service.findByGroupIdAfter(groupId, TransactionCursor.decode(after), size, sortDirection);
+        return new ResponseEntity<>(buildCursorSlice(transactions), HttpStatus.OK);
+    }
+
+    private ResponseEntity<StreamingResponseBody> buildExportResponse(StreamingResponseBody body, String name, String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + name + (ndjson ? ".ndjson" : ".csv") + "\"")
+                .body(body);
+    }
+
+    private CursorSliceDto<TransactionDto> buildCursorSlice(Slice<TransactionDto> transactions) {
+        buildSelfLinks(transactions);
+        var content = transactions.getContent();
+        String nextCursor = transactions.hasNext()
+                ? TransactionCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorSliceDto<>(content, content.size(), transactions.hasNext(), nextCursor);
     }
 
     private void buildSelfLink(TransactionDto transactionDto) {
-        transactionDto.add(
-                WebMvcLinkBuilder.linkTo(
-                        WebMvcLinkBuilder.methodOn(this.getClass()).findById(transactionDto.getId())
-                ).withSelfRel()
-        );
+        transactionDto.add(SelfLinks.of(TransactionController.class).to(transactionDto.getId()));
+    }
+
+    private void buildSelfLinks(Iterable<TransactionDto> transactions) {
+        SelfLinks links = SelfLinks.of(TransactionController.class);
+        transactions.forEach(transaction -> transaction.add(links.to(transaction.getId())));
     }
 }
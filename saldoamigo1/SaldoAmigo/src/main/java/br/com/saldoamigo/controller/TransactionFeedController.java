@@ -0,0 +1,33 @@
+package br.com.saldoamigo.controller;
+
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.service.TransactionFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@Tag(name = "Transactions", description = "Endpoint usado para operações que envolvem transações")
+@RestController
+@RequestMapping("/transactions/feed")
+public class TransactionFeedController {
+
+    @Autowired
+    private TransactionFeedService service;
+
+    @GetMapping(value = "/group/{groupId}", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Feed de transações do grupo em fluxo", description = "Envia as transações do grupo uma a uma (NDJSON ou SSE), ordenadas por data e ID. As consultas ao banco acompanham o ritmo de leitura do cliente, sem montar a página inteira em memória.")
+    @ApiResponse(responseCode = "200", description = "Fluxo de transações")
+    public Flux<TransactionDto> streamByGroupId(
+            @PathVariable Long groupId,
+            @RequestParam(value = "direction", defaultValue = "asc") @Parameter(description = "Direção da ordenação (asc ou desc)") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return service.streamByGroupId(groupId, sortDirection);
+    }
+}
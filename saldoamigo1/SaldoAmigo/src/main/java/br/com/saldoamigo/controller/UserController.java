@@ -1,6 +1,7 @@
 package br.com.saldoamigo.controller;
 
 import br.com.saldoamigo.dto.UserDto;
+import br.com.saldoamigo.dto.UserReferenceDto;
 import br.com.saldoamigo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,10 +15,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Tag(name = "Users", description = "Endpoint usado para operações que envolvem usuários")
 @RestController
 @RequestMapping("/users")
@@ -41,16 +45,19 @@ public class UserController {
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     public ResponseEntity<UserDto> findById(@PathVariable(name = "id") @Parameter(description = "ID do usuário a ser buscado") Long id) {
         UserDto user = service.findById(id);
-        return new ResponseEntity<>(user, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).cacheControl(ETags.revalidate()).body(user);
     }
 
     @PutMapping
     @Operation(summary = "Atualiza as informações de um usuário", description = "Atualiza um usuário existente com as novas informações fornecidas.")
     @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso", content = @Content(schema = @Schema(implementation = UserDto.class)))
     @ApiResponse(responseCode = "400", description = "Erro na validação dos dados")
-    public ResponseEntity<UserDto> update(@RequestBody @Parameter(description = "Objeto contendo as informações do usuário a ser atualizado") UserDto userDto) {
-        UserDto user = service.update(userDto);
-        return new ResponseEntity<>(user, HttpStatus.OK);
+    @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    public ResponseEntity<UserDto> update(
+            @RequestBody @Parameter(description = "Objeto contendo as informações do usuário a ser atualizado") UserDto userDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag obtido na consulta; se informado, só atualiza se o usuário não tiver mudado") String ifMatch) {
+        UserDto user = service.update(userDto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
     }
 
     @DeleteMapping("/{id}")
@@ -92,4 +99,15 @@ public class UserController {
         Page<UserDto> users = service.findByUsername(username, pageable);
         return new ResponseEntity(assembler.toModel(users), HttpStatus.OK);
     }
+
+    @GetMapping("/complete")
+    @Operation(summary = "Autocompleta nomes de usuário", description = "Retorna até 'limit' usuários cujo nome começa com o prefixo informado, em ordem alfabética. Atendido por um índice em memória; para paginação use /find/username/{username}.")
+    @ApiResponse(responseCode = "200", description = "Lista de usuários encontrados")
+    public ResponseEntity<List<UserReferenceDto>> complete(
+            @RequestParam(value = "prefix") @Parameter(description = "Início do nome de usuário") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Parameter(description = "Número máximo de sugestões") int limit
+    ) {
+        List<UserReferenceDto> users = service.complete(prefix, Math.max(0, Math.min(limit, 50)));
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
 }
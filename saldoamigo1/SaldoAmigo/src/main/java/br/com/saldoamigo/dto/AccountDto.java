@@ -1,6 +1,5 @@
 package br.com.saldoamigo.dto;
 
-import br.com.saldoamigo.model.UserModel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,5 +15,6 @@ public class AccountDto extends RepresentationModel<AccountDto> {
     private String name;
     private String pixKey;
     private String city;
-    private UserModel user;
+    private UserReferenceDto user;
+    private long version;
 }
@@ -0,0 +1,15 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AccountReferenceDto {
+    private long id;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AccountSummaryDto {
+    private long accountId;
+    private String accountName;
+    private long totalCents;
+    private long count;
+    private long netShareCents;
+}
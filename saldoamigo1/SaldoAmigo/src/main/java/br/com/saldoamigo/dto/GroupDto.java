@@ -1,6 +1,5 @@
 package br.com.saldoamigo.dto;
 
-import br.com.saldoamigo.model.UserModel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,5 +14,6 @@ public class GroupDto extends RepresentationModel<GroupDto> {
     private long id;
     private String name;
     private String description;
-    private UserModel user;
+    private UserReferenceDto user;
+    private long version;
 }
@@ -0,0 +1,37 @@
+package br.com.saldoamigo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.List;
+
+// Evento enviado em GET /groups/{id}/events. "reload" indica que o cliente deve buscar a lista de novo,
+// como depois de uma importação, de apagar todas as transações do grupo ou de ficar para trás no fluxo.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GroupEventDto(Type type, long groupId, TransactionDto transaction, List<Long> ids) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RELOAD;
+
+        @JsonValue
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static GroupEventDto created(TransactionDto transaction) {
+        return new GroupEventDto(Type.CREATED, transaction.getGroup().getId(), transaction, null);
+    }
+
+    public static GroupEventDto updated(TransactionDto transaction) {
+        return new GroupEventDto(Type.UPDATED, transaction.getGroup().getId(), transaction, null);
+    }
+
+    public static GroupEventDto deleted(long groupId, List<Long> ids) {
+        return new GroupEventDto(Type.DELETED, groupId, null, ids);
+    }
+
+    public static GroupEventDto reload(long groupId) {
+        return new GroupEventDto(Type.RELOAD, groupId, null, null);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class GroupReportDto extends RepresentationModel<GroupReportDto> {
+    private long groupId;
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalCents;
+    private long count;
+    private List<PeriodTotalDto> periods;
+}
@@ -0,0 +1,20 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class GroupSummaryDto extends RepresentationModel<GroupSummaryDto> {
+    private long groupId;
+    private long totalCents;
+    private long count;
+    private List<AccountSummaryDto> accounts;
+}
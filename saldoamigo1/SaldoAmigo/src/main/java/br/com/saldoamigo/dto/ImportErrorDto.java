@@ -0,0 +1,4 @@
+package br.com.saldoamigo.dto;
+
+public record ImportErrorDto(long line, String message) {
+}
@@ -0,0 +1,20 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ImportReportDto {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDto> errors;
+    private boolean errorsTruncated;
+}
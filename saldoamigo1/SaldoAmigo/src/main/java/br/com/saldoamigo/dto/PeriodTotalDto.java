@@ -0,0 +1,21 @@
+package br.com.saldoamigo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class PeriodTotalDto {
+    private LocalDate start;
+    private LocalDate end;
+    private long totalCents;
+    private long count;
+    private List<AccountPeriodTotalDto> accounts;
+}
@@ -0,0 +1,31 @@
+package br.com.saldoamigo.dto;
+
+import br.com.saldoamigo.exception.BadRequestException;
+
+import java.time.YearMonth;
+
+public enum ReportGranularity {
+    MONTH(1), QUARTER(3), YEAR(12);
+
+    private final int months;
+
+    ReportGranularity(int months) {
+        this.months = months;
+    }
+
+    public static ReportGranularity of(String granularity) {
+        for (ReportGranularity value : values()) {
+            if (value.name().equalsIgnoreCase(granularity)) return value;
+        }
+        throw new BadRequestException("Granularidade inválida! Use month, quarter ou year.");
+    }
+
+    public int months() {
+        return months;
+    }
+
+    // Primeiro mês do período que contém o mês informado
+    public YearMonth start(YearMonth month) {
+        return month.withMonth((month.getMonthValue() - 1) / months * months + 1);
+    }
+}
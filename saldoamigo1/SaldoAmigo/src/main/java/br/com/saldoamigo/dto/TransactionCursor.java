@@ -0,0 +1,36 @@
+package br.com.saldoamigo.dto;
+
+import br.com.saldoamigo.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record TransactionCursor(LocalDate date, long id) {
+
+    public static TransactionCursor of(TransactionDto transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    // Aceita tanto o cursor opaco devolvido pela API quanto a forma literal "data,id"
+    public static TransactionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = cursor.indexOf(',') >= 0
+                    ? cursor
+                    : new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(',');
+            return new TransactionCursor(
+                    LocalDate.parse(raw.substring(0, separator).trim()),
+                    Long.parseLong(raw.substring(separator + 1).trim()));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor inválido!");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,5 @@
 package br.com.saldoamigo.dto;
 
-import br.com.saldoamigo.model.AccountModel;
-import br.com.saldoamigo.model.GroupModel;
-import br.com.saldoamigo.model.TransactionModel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,8 +14,9 @@ import java.time.LocalDate;
 @Setter
 public class TransactionDto extends RepresentationModel<TransactionDto> {
     private long id;
-    private double value;
+    private Long valueCents;
     private LocalDate date;
-    private AccountModel account;
-    private GroupModel group;
+    private AccountReferenceDto account;
+    private GroupReferenceDto group;
+    private long version;
 }
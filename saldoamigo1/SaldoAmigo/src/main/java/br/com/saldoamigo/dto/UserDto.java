@@ -18,4 +18,5 @@ public class UserDto extends RepresentationModel<UserDto> {
     private String phone;
     private String password;
     private UserModel.UserRole role;
+    private long version;
 }
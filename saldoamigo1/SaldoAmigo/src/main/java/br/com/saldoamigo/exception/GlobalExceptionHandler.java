@@ -1,5 +1,6 @@
 package br.com.saldoamigo.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -24,4 +25,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler{
         CustomExceptionResponse response = new CustomExceptionResponse(new Date(), e.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(BadRequestException.class)
+    public final ResponseEntity<CustomExceptionResponse> handleBadRequestException(Exception e, WebRequest request){
+        CustomExceptionResponse response = new CustomExceptionResponse(new Date(), e.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public final ResponseEntity<CustomExceptionResponse> handlePreconditionFailedException(Exception e, WebRequest request){
+        CustomExceptionResponse response = new CustomExceptionResponse(new Date(), e.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<CustomExceptionResponse> handleServiceUnavailableException(Exception e, WebRequest request){
+        CustomExceptionResponse response = new CustomExceptionResponse(new Date(), e.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public final ResponseEntity<CustomExceptionResponse> handleOptimisticLockingFailureException(Exception e, WebRequest request){
+        CustomExceptionResponse response = new CustomExceptionResponse(new Date(), "Registro alterado por outra requisição!", request.getDescription(false));
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
 }
@@ -1,23 +1,76 @@
 package br.com.saldoamigo.mapper;
 
+import br.com.saldoamigo.dto.AccountDto;
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.dto.UserDto;
+import br.com.saldoamigo.dto.UserReferenceDto;
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.GroupModel;
+import br.com.saldoamigo.model.TransactionModel;
+import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.repository.projection.TransactionRow;
 import org.modelmapper.ModelMapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class CustomModelMapper {
 
+    // Usado apenas para pares de tipos sem conversor especializado
     public static ModelMapper mapper = new ModelMapper();
 
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> converters = new HashMap<>();
+
+    // Resolve por classe de origem subindo a hierarquia, para que proxies do Hibernate usem o mesmo conversor
+    private static final ClassValue<Map<Class<?>, Function<Object, Object>>> resolved = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Function<Object, Object>> computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                var found = converters.get(c);
+                if (found != null) return found;
+            }
+            return Map.of();
+        }
+    };
+
+    static {
+        register(UserModel.class, UserDto.class, DtoMapper::toDto);
+        register(UserDto.class, UserModel.class, DtoMapper::toModel);
+        register(AccountModel.class, AccountDto.class, DtoMapper::toDto);
+        register(AccountDto.class, AccountModel.class, DtoMapper::toModel);
+        register(GroupModel.class, GroupDto.class, DtoMapper::toDto);
+        register(GroupDto.class, GroupModel.class, DtoMapper::toModel);
+        register(TransactionModel.class, TransactionDto.class, DtoMapper::toDto);
+        register(TransactionDto.class, TransactionModel.class, DtoMapper::toModel);
+        register(TransactionRow.class, TransactionDto.class, DtoMapper::toDto);
+        register(UserReferenceDto.class, UserModel.class, DtoMapper::toModel);
+        register(AccountReferenceDto.class, AccountModel.class, DtoMapper::toModel);
+        register(GroupReferenceDto.class, GroupModel.class, DtoMapper::toModel);
+    }
+
+    private static <Origin, Destination> void register(Class<Origin> origin, Class<Destination> destination, Function<Origin, Destination> converter) {
+        converters.computeIfAbsent(origin, key -> new HashMap<>())
+                .put(destination, o -> converter.apply(origin.cast(o)));
+    }
+
     public static<Origin, Destination>Destination parseObject(Origin origin, Class<Destination> destination){
+        if (origin == null) return null;
+        var converter = resolved.get(origin.getClass()).get(destination);
+        if (converter != null) return destination.cast(converter.apply(origin));
         return mapper.map(origin, destination);
     }
 
     public static <Origin, Destination>List<Destination> parseObjectList(List<Origin> origin, Class<Destination> destination){
 
-        List<Destination> destinationList = new ArrayList<Destination>();
+        List<Destination> destinationList = new ArrayList<Destination>(origin.size());
         for(Origin o : origin){
-            destinationList.add(mapper.map(o, destination));
+            destinationList.add(parseObject(o, destination));
         }
 
         return destinationList;
@@ -0,0 +1,149 @@
+package br.com.saldoamigo.mapper;
+
+import br.com.saldoamigo.dto.AccountDto;
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.dto.UserDto;
+import br.com.saldoamigo.dto.UserReferenceDto;
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.GroupModel;
+import br.com.saldoamigo.model.TransactionModel;
+import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.repository.projection.TransactionRow;
+
+final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    static UserDto toDto(UserModel model) {
+        UserDto dto = new UserDto();
+        dto.setId(model.getId());
+        dto.setUsername(model.getUsername());
+        dto.setEmail(model.getEmail());
+        dto.setPhone(model.getPhone());
+        dto.setPassword(model.getPassword());
+        dto.setRole(model.getRole());
+        dto.setVersion(model.getVersion());
+        return dto;
+    }
+
+    static UserModel toModel(UserDto dto) {
+        UserModel model = new UserModel();
+        model.setId(dto.getId());
+        model.setUsername(dto.getUsername());
+        model.setEmail(dto.getEmail());
+        model.setPhone(dto.getPhone());
+        model.setPassword(dto.getPassword());
+        model.setRole(dto.getRole());
+        return model;
+    }
+
+    static AccountDto toDto(AccountModel model) {
+        AccountDto dto = new AccountDto();
+        dto.setId(model.getId());
+        dto.setName(model.getName());
+        dto.setPixKey(model.getPixKey());
+        dto.setCity(model.getCity());
+        dto.setUser(toReference(model.getUser()));
+        dto.setVersion(model.getVersion());
+        return dto;
+    }
+
+    static AccountModel toModel(AccountDto dto) {
+        AccountModel model = new AccountModel();
+        model.setId(dto.getId());
+        model.setName(dto.getName());
+        model.setPixKey(dto.getPixKey());
+        model.setCity(dto.getCity());
+        model.setUser(toModel(dto.getUser()));
+        return model;
+    }
+
+    static GroupDto toDto(GroupModel model) {
+        GroupDto dto = new GroupDto();
+        dto.setId(model.getId());
+        dto.setName(model.getName());
+        dto.setDescription(model.getDescription());
+        dto.setUser(toReference(model.getUser()));
+        dto.setVersion(model.getVersion());
+        return dto;
+    }
+
+    static GroupModel toModel(GroupDto dto) {
+        GroupModel model = new GroupModel();
+        model.setId(dto.getId());
+        model.setName(dto.getName());
+        model.setDescription(dto.getDescription());
+        model.setUser(toModel(dto.getUser()));
+        return model;
+    }
+
+    static TransactionDto toDto(TransactionModel model) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(model.getId());
+        dto.setValueCents(model.getValueCents());
+        dto.setDate(model.getDate());
+        dto.setAccount(toReference(model.getAccount()));
+        dto.setGroup(toReference(model.getGroup()));
+        dto.setVersion(model.getVersion());
+        return dto;
+    }
+
+    static TransactionModel toModel(TransactionDto dto) {
+        TransactionModel model = new TransactionModel();
+        model.setId(dto.getId());
+        model.setValueCents(dto.getValueCents());
+        model.setDate(dto.getDate());
+        model.setAccount(toModel(dto.getAccount()));
+        model.setGroup(toModel(dto.getGroup()));
+        return model;
+    }
+
+    static TransactionDto toDto(TransactionRow row) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(row.id());
+        dto.setValueCents(row.valueCents());
+        dto.setDate(row.date());
+        dto.setAccount(new AccountReferenceDto(row.accountId(), row.accountName()));
+        dto.setGroup(new GroupReferenceDto(row.groupId(), row.groupName()));
+        dto.setVersion(row.version());
+        return dto;
+    }
+
+    // Referências carregam apenas id e nome; na escrita viram entidades contendo só o id
+    static UserReferenceDto toReference(UserModel model) {
+        return model == null ? null : new UserReferenceDto(model.getId(), model.getUsername());
+    }
+
+    static AccountReferenceDto toReference(AccountModel model) {
+        return model == null ? null : new AccountReferenceDto(model.getId(), model.getName());
+    }
+
+    static GroupReferenceDto toReference(GroupModel model) {
+        return model == null ? null : new GroupReferenceDto(model.getId(), model.getName());
+    }
+
+    static UserModel toModel(UserReferenceDto reference) {
+        if (reference == null) return null;
+        UserModel model = new UserModel();
+        model.setId(reference.getId());
+        return model;
+    }
+
+    static AccountModel toModel(AccountReferenceDto reference) {
+        if (reference == null) return null;
+        AccountModel model = new AccountModel();
+        model.setId(reference.getId());
+        return model;
+    }
+
+    static GroupModel toModel(GroupReferenceDto reference) {
+        if (reference == null) return null;
+        GroupModel model = new GroupModel();
+        model.setId(reference.getId());
+        return model;
+    }
+}
@@ -29,4 +29,8 @@ public class AccountModel {
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private UserModel user;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
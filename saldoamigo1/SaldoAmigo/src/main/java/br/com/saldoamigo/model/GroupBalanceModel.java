@@ -0,0 +1,47 @@
+package br.com.saldoamigo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "group_balances")
+@IdClass(GroupBalanceModel.GroupBalanceId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class GroupBalanceModel {
+
+    @Id
+    @Column(name = "group_id")
+    private long groupId;
+
+    @Id
+    @Column(name = "account_id")
+    private long accountId;
+
+    @Column(name = "total_cents", nullable = false)
+    private long totalCents;
+
+    @Column(nullable = false)
+    private long count;
+
+    private LocalDate lastDate;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class GroupBalanceId implements Serializable {
+        private long groupId;
+        private long accountId;
+    }
+}
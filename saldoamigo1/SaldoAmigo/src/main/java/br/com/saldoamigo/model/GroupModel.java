@@ -27,4 +27,8 @@ public class GroupModel {
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private UserModel user;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,51 @@
+package br.com.saldoamigo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "group_monthly_totals")
+@IdClass(GroupMonthlyTotalModel.GroupMonthlyTotalId.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class GroupMonthlyTotalModel {
+
+    @Id
+    @Column(name = "group_id")
+    private long groupId;
+
+    // Primeiro dia do mês
+    @Id
+    @Column(name = "month")
+    private LocalDate month;
+
+    @Id
+    @Column(name = "account_id")
+    private long accountId;
+
+    @Column(name = "total_cents", nullable = false)
+    private long totalCents;
+
+    @Column(nullable = false)
+    private long count;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class GroupMonthlyTotalId implements Serializable {
+        private long groupId;
+        private LocalDate month;
+        private long accountId;
+    }
+}
@@ -6,7 +6,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
@@ -21,8 +20,9 @@ public class TransactionModel {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @Column(nullable = false)
-    private double value;
+    // Centavos
+    @Column(name = "value_cents", nullable = false)
+    private long valueCents;
 
     @Column(nullable = false)
     private LocalDate date;
@@ -35,6 +35,10 @@ public class TransactionModel {
     @JoinColumn(name = "group_id", nullable = false)
     private GroupModel group;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
             this.date = LocalDate.now();
@@ -39,6 +39,10 @@ public class UserModel implements UserDetails {
     @Column(nullable = false)
     private UserRole role;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         if(this.role == UserRole.admin) return List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"));
@@ -1,21 +1,48 @@
 package br.com.saldoamigo.repository;
 
 import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.repository.projection.ListVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AccountRepository extends JpaRepository<AccountModel, Long> {
 
-    Page<AccountModel> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    // Buscas por trecho usam ilike sobre a coluna original para aproveitar os índices pg_trgm (V1.5)
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "select a from AccountModel a where a.name ilike %:#{escape(#name)}% escape :#{escapeCharacter()}",
+            countQuery = "select count(a) from AccountModel a where a.name ilike %:#{escape(#name)}% escape :#{escapeCharacter()}")
+    Page<AccountModel> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
-    Page<AccountModel> findByCityContainingIgnoreCase(String city, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "select a from AccountModel a where a.city ilike %:#{escape(#city)}% escape :#{escapeCharacter()}",
+            countQuery = "select count(a) from AccountModel a where a.city ilike %:#{escape(#city)}% escape :#{escapeCharacter()}")
+    Page<AccountModel> findByCityContainingIgnoreCase(@Param("city") String city, Pageable pageable);
 
+    @EntityGraph(attributePaths = "user")
     Page<AccountModel> findAll(Pageable pageable);
 
-    Page<AccountModel> findByPixKeyContainingIgnoreCase(String pixKey, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "select a from AccountModel a where a.pixKey ilike %:#{escape(#pixKey)}% escape :#{escapeCharacter()}",
+            countQuery = "select count(a) from AccountModel a where a.pixKey ilike %:#{escape(#pixKey)}% escape :#{escapeCharacter()}")
+    Page<AccountModel> findByPixKeyContainingIgnoreCase(@Param("pixKey") String pixKey, Pageable pageable);
 
+    @EntityGraph(attributePaths = "user")
     Page<AccountModel> findByUserId(Long userId, Pageable pageable);
+
+    @Query("select new br.com.saldoamigo.repository.projection.ListVersion(" +
+            "count(a), coalesce(max(a.id), 0), coalesce(sum(a.version + u.version), 0)) " +
+            "from AccountModel a join a.user u where u.id = :userId")
+    ListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    // Remove sem carregar a entidade; o banco apaga em cascata o que depende dela
+    @Modifying
+    @Query("delete from AccountModel a where a.id = :id")
+    int removeById(@Param("id") Long id);
 }
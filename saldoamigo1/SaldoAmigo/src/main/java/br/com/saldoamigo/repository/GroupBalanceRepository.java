@@ -0,0 +1,57 @@
+package br.com.saldoamigo.repository;
+
+import br.com.saldoamigo.model.GroupBalanceModel;
+import br.com.saldoamigo.repository.projection.AccountTotalRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalanceModel, GroupBalanceModel.GroupBalanceId> {
+
+    @Query("select new br.com.saldoamigo.repository.projection.AccountTotalRow(b.accountId, a.name, b.totalCents, b.count) " +
+            "from GroupBalanceModel b join AccountModel a on a.id = b.accountId " +
+            "where b.groupId = :groupId " +
+            "order by a.name")
+    List<AccountTotalRow> findTotalsByGroupId(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query(value = "insert into group_balances (group_id, account_id, total_cents, count, last_date) " +
+            "values (:groupId, :accountId, :valueCents, :count, :date) " +
+            "on conflict (group_id, account_id) do update set " +
+            "total_cents = group_balances.total_cents + excluded.total_cents, " +
+            "count = group_balances.count + excluded.count, " +
+            "last_date = greatest(group_balances.last_date, excluded.last_date)", nativeQuery = true)
+    void add(@Param("groupId") Long groupId, @Param("accountId") Long accountId,
+             @Param("valueCents") long valueCents, @Param("count") long count, @Param("date") LocalDate date);
+
+    // O last_date é recalculado ignorando a transação removida, já que ela pode ainda não ter sido enviada ao banco
+    @Modifying
+    @Query(value = "update group_balances set total_cents = total_cents - :valueCents, count = count - 1, " +
+            "last_date = (select max(t.date) from transactions t " +
+            "where t.group_id = :groupId and t.account_id = :accountId and t.id <> :transactionId) " +
+            "where group_id = :groupId and account_id = :accountId", nativeQuery = true)
+    void subtract(@Param("groupId") Long groupId, @Param("accountId") Long accountId,
+                  @Param("valueCents") long valueCents, @Param("transactionId") Long transactionId);
+
+    @Modifying
+    @Query(value = "delete from group_balances where group_id = :groupId and account_id = :accountId and count <= 0", nativeQuery = true)
+    void deleteIfEmpty(@Param("groupId") Long groupId, @Param("accountId") Long accountId);
+
+    // Para transações já removidas do banco: o last_date sai das que restaram
+    @Modifying
+    @Query(value = "update group_balances set total_cents = total_cents - :valueCents, count = count - :count, " +
+            "last_date = (select max(t.date) from transactions t where t.group_id = :groupId and t.account_id = :accountId) " +
+            "where group_id = :groupId and account_id = :accountId", nativeQuery = true)
+    void subtractDeleted(@Param("groupId") Long groupId, @Param("accountId") Long accountId,
+                         @Param("valueCents") long valueCents, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "delete from group_balances where group_id = :groupId", nativeQuery = true)
+    void deleteByGroupId(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,47 @@
+package br.com.saldoamigo.repository;
+
+import br.com.saldoamigo.model.GroupMonthlyTotalModel;
+import br.com.saldoamigo.repository.projection.MonthlyTotalRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface GroupMonthlyTotalRepository extends JpaRepository<GroupMonthlyTotalModel, GroupMonthlyTotalModel.GroupMonthlyTotalId> {
+
+    @Query("select new br.com.saldoamigo.repository.projection.MonthlyTotalRow(m.month, m.accountId, a.name, m.totalCents, m.count) " +
+            "from GroupMonthlyTotalModel m join AccountModel a on a.id = m.accountId " +
+            "where m.groupId = :groupId and m.month between :from and :to " +
+            "order by m.month, a.name")
+    List<MonthlyTotalRow> findByGroupIdAndMonthBetween(@Param("groupId") Long groupId,
+                                                        @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "insert into group_monthly_totals (group_id, month, account_id, total_cents, count) " +
+            "values (:groupId, :month, :accountId, :valueCents, :count) " +
+            "on conflict (group_id, month, account_id) do update set " +
+            "total_cents = group_monthly_totals.total_cents + excluded.total_cents, " +
+            "count = group_monthly_totals.count + excluded.count", nativeQuery = true)
+    void add(@Param("groupId") Long groupId, @Param("accountId") Long accountId, @Param("month") LocalDate month,
+             @Param("valueCents") long valueCents, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "update group_monthly_totals set total_cents = total_cents - :valueCents, count = count - :count " +
+            "where group_id = :groupId and month = :month and account_id = :accountId", nativeQuery = true)
+    void subtract(@Param("groupId") Long groupId, @Param("accountId") Long accountId, @Param("month") LocalDate month,
+                  @Param("valueCents") long valueCents, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "delete from group_monthly_totals " +
+            "where group_id = :groupId and month = :month and account_id = :accountId and count <= 0", nativeQuery = true)
+    void deleteIfEmpty(@Param("groupId") Long groupId, @Param("accountId") Long accountId, @Param("month") LocalDate month);
+
+    @Modifying
+    @Query(value = "delete from group_monthly_totals where group_id = :groupId", nativeQuery = true)
+    void deleteByGroupId(@Param("groupId") Long groupId);
+}
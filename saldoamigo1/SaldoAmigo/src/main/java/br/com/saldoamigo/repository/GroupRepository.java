@@ -1,14 +1,33 @@
 package br.com.saldoamigo.repository;
 
 import br.com.saldoamigo.model.GroupModel;
+import br.com.saldoamigo.repository.projection.ListVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GroupRepository extends JpaRepository<GroupModel, Long> {
-    Page<GroupModel> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "select g from GroupModel g where g.name ilike %:#{escape(#name)}% escape :#{escapeCharacter()}",
+            countQuery = "select count(g) from GroupModel g where g.name ilike %:#{escape(#name)}% escape :#{escapeCharacter()}")
+    Page<GroupModel> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
     Page<GroupModel> findAll(Pageable pageable);
+    @EntityGraph(attributePaths = "user")
     Page<GroupModel> findByUserId(Long userId, Pageable pageable);
+    @Query("select new br.com.saldoamigo.repository.projection.ListVersion(" +
+            "count(g), coalesce(max(g.id), 0), coalesce(sum(g.version + u.version), 0)) " +
+            "from GroupModel g join g.user u where u.id = :userId")
+    ListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    // Remove sem carregar a entidade; o banco apaga em cascata o que depende dela
+    @Modifying
+    @Query("delete from GroupModel g where g.id = :id")
+    int removeById(@Param("id") Long id);
 }
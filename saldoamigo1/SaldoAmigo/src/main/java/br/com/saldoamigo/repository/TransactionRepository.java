@@ -1,18 +1,89 @@
 package br.com.saldoamigo.repository;
 
 import br.com.saldoamigo.model.TransactionModel;
+import br.com.saldoamigo.repository.projection.ListVersion;
+import br.com.saldoamigo.repository.projection.TransactionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<TransactionModel, Long> {
 
-    Page<TransactionModel> findByDate(LocalDate date, Pageable pageable);
+    // Listagens projetam apenas os campos exibidos, sem carregar contas, grupos e usuários como entidades
+    String SELECT_ROW = "select new br.com.saldoamigo.repository.projection.TransactionRow(" +
+            "t.id, t.valueCents, t.date, a.id, a.name, g.id, g.name, t.version) " +
+            "from TransactionModel t join t.account a join t.group g ";
 
-    Page<TransactionModel> findByAccountId(Long accountId, Pageable pageable);
+    // Relê uma transação gravada para devolvê-la com os nomes da conta e do grupo
+    @Query(SELECT_ROW + "where t.id = :id")
+    TransactionRow findRowById(@Param("id") Long id);
 
-    Page<TransactionModel> findByGroupId(Long groupId, Pageable pageable);
+    @Query(value = SELECT_ROW, countQuery = "select count(t) from TransactionModel t")
+    Page<TransactionRow> findAllRows(Pageable pageable);
+
+    @Query(value = SELECT_ROW + "where t.date = :date",
+            countQuery = "select count(t) from TransactionModel t where t.date = :date")
+    Page<TransactionRow> findByDate(@Param("date") LocalDate date, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "where a.id = :accountId",
+            countQuery = "select count(t) from TransactionModel t where t.account.id = :accountId")
+    Page<TransactionRow> findByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query(value = SELECT_ROW + "where g.id = :groupId",
+            countQuery = "select count(t) from TransactionModel t where t.group.id = :groupId")
+    Page<TransactionRow> findByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    // Inclui as versões de conta e grupo, cujos nomes aparecem em cada linha
+    @Query("select new br.com.saldoamigo.repository.projection.ListVersion(" +
+            "count(t), coalesce(max(t.id), 0), coalesce(sum(t.version + a.version + g.version), 0)) " +
+            "from TransactionModel t join t.account a join t.group g where g.id = :groupId")
+    ListVersion findListVersionByGroupId(@Param("groupId") Long groupId);
+
+    // Consultas por chave (date, id): o custo de cada página independe da sua posição. A comparação de
+    // linhas entra inteira na condição do índice (grupo ou conta, date, id); a forma com "or" não entra
+    @Query(SELECT_ROW)
+    Slice<TransactionRow> findSliceBy(Pageable pageable);
+
+    @Query(SELECT_ROW + "where (t.date, t.id) > (:date, :id)")
+    Slice<TransactionRow> findAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + "where (t.date, t.id) < (:date, :id)")
+    Slice<TransactionRow> findBefore(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + "where a.id = :accountId")
+    Slice<TransactionRow> findSliceByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query(SELECT_ROW + "where a.id = :accountId " +
+            "and (t.date, t.id) > (:date, :id)")
+    Slice<TransactionRow> findByAccountIdAfter(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                                               @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + "where a.id = :accountId " +
+            "and (t.date, t.id) < (:date, :id)")
+    Slice<TransactionRow> findByAccountIdBefore(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                                                @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + "where g.id = :groupId")
+    Slice<TransactionRow> findSliceByGroupId(@Param("groupId") Long groupId, Pageable pageable);
+
+    @Query(SELECT_ROW + "where g.id = :groupId " +
+            "and (t.date, t.id) > (:date, :id)")
+    Slice<TransactionRow> findByGroupIdAfter(@Param("groupId") Long groupId, @Param("date") LocalDate date,
+                                             @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_ROW + "where g.id = :groupId " +
+            "and (t.date, t.id) < (:date, :id)")
+    Slice<TransactionRow> findByGroupIdBefore(@Param("groupId") Long groupId, @Param("date") LocalDate date,
+                                              @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from transactions where group_id = :groupId", nativeQuery = true)
+    int removeByGroupId(@Param("groupId") Long groupId);
 }
@@ -1,12 +1,18 @@
 package br.com.saldoamigo.repository;
 
+import br.com.saldoamigo.dto.UserReferenceDto;
 import br.com.saldoamigo.model.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<UserModel, Long> {
 
@@ -15,4 +21,11 @@ public interface UserRepository extends JpaRepository<UserModel, Long> {
     public Page<UserModel> findAll(Pageable pageable);
 
     UserDetails findByEmail(String email);
+
+    @Query("select new br.com.saldoamigo.dto.UserReferenceDto(u.id, u.username) from UserModel u")
+    List<UserReferenceDto> findAllReferences();
+
+    // Remove sem carregar o usuário e devolve o e-mail, usado para invalidar o cache de autenticação
+    @Query(value = "delete from users where id = :id returning email", nativeQuery = true)
+    Optional<String> removeByIdReturningEmail(@Param("id") Long id);
 }
@@ -0,0 +1,4 @@
+package br.com.saldoamigo.repository.projection;
+
+public record AccountTotalRow(long accountId, String accountName, long totalCents, long count) {
+}
@@ -0,0 +1,9 @@
+package br.com.saldoamigo.repository.projection;
+
+// Resumo de uma listagem para o ETag: muda quando um item é criado, removido ou alterado
+public record ListVersion(long count, long maxId, long versionSum) {
+
+    public String etag() {
+        return "\"" + count + "-" + maxId + "-" + versionSum + "\"";
+    }
+}
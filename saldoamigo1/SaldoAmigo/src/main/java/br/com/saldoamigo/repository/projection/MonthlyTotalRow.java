@@ -0,0 +1,6 @@
+package br.com.saldoamigo.repository.projection;
+
+import java.time.LocalDate;
+
+public record MonthlyTotalRow(LocalDate month, long accountId, String accountName, long totalCents, long count) {
+}
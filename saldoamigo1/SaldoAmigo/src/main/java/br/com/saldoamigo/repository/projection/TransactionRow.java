@@ -0,0 +1,8 @@
+package br.com.saldoamigo.repository.projection;
+
+import java.time.LocalDate;
+
+public record TransactionRow(long id, long valueCents, LocalDate date,
+                             long accountId, String accountName,
+                             long groupId, String groupName, long version) {
+}
@@ -1,14 +1,18 @@
 package br.com.saldoamigo.service;
 
 import br.com.saldoamigo.dto.AccountDto;
+import br.com.saldoamigo.exception.PreconditionFailedException;
 import br.com.saldoamigo.exception.ResourceNotFoundException;
 import br.com.saldoamigo.mapper.CustomModelMapper;
 import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.UserModel;
 import br.com.saldoamigo.repository.AccountRepository;
+import br.com.saldoamigo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AccountService {
@@ -16,8 +20,14 @@ public class AccountService {
     @Autowired
     private AccountRepository repository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    // O usuário vem como referência só com id; getReferenceById dá o nome de usuário à resposta
+    @Transactional
     public AccountDto create(AccountDto accountDto) {
         AccountModel accountModel = CustomModelMapper.parseObject(accountDto, AccountModel.class);
+        accountModel.setUser(user(accountDto));
         return CustomModelMapper.parseObject(repository.save(accountModel), AccountDto.class);
     }
 
@@ -27,22 +37,28 @@ public class AccountService {
         return CustomModelMapper.parseObject(found, AccountDto.class);
     }
 
-    public AccountDto update(AccountDto accountDto) {
+    @Transactional
+    public AccountDto update(AccountDto accountDto, Long expectedVersion) {
         AccountModel found = repository.findById(accountDto.getId()).orElseThrow(
                 () -> new ResourceNotFoundException("Conta não encontrada!"));
+        if (expectedVersion != null && found.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Conta alterada por outra requisição!");
+        }
 
         found.setName(accountDto.getName());
         found.setPixKey(accountDto.getPixKey());
         found.setCity(accountDto.getCity());
-        found.setUser(CustomModelMapper.parseObject(accountDto.getUser(), AccountModel.class).getUser());
+        found.setUser(user(accountDto));
 
-        return CustomModelMapper.parseObject(repository.save(found), AccountDto.class);
+        // flush antecipado para devolver a versão já incrementada
+        return CustomModelMapper.parseObject(repository.saveAndFlush(found), AccountDto.class);
     }
 
+    @Transactional
     public void delete(Long id) {
-        AccountModel found = repository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Conta não encontrada!"));
-        repository.delete(found);
+        if (repository.removeById(id) == 0) {
+            throw new ResourceNotFoundException("Conta não encontrada!");
+        }
     }
 
     public Page<AccountDto> findAll(Pageable pageable) {
@@ -69,4 +85,12 @@ public class AccountService {
         var accounts = repository.findByUserId(userId, pageable);
         return accounts.map(account -> CustomModelMapper.parseObject(account, AccountDto.class));
     }
+
+    public String etagByUserId(Long userId) {
+        return repository.findListVersionByUserId(userId).etag();
+    }
+
+    private UserModel user(AccountDto accountDto) {
+        return accountDto.getUser() == null ? null : userRepository.getReferenceById(accountDto.getUser().getId());
+    }
 }
@@ -0,0 +1,42 @@
+package br.com.saldoamigo.service;
+
+// Conversão exata entre centavos e o texto em reais dos arquivos de importação e exportação ("-12.5" <-> -1250)
+final class Cents {
+
+    private Cents() {
+    }
+
+    static long parse(String reais) {
+        int length = reais.length();
+        int i = reais.startsWith("-") || reais.startsWith("+") ? 1 : 0;
+        long units = 0;
+        int digits = 0;
+        for (; i < length && reais.charAt(i) != '.'; i++, digits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(reais, i));
+        }
+        long cents = 0;
+        int decimals = 0;
+        if (i < length) {
+            for (i++; i < length; i++, decimals++) {
+                if (decimals == 2) throw new IllegalArgumentException("valor com mais de 2 casas decimais: " + reais);
+                cents = cents * 10 + digit(reais, i);
+            }
+        }
+        if (digits + decimals == 0) throw new IllegalArgumentException("valor inválido: " + reais);
+        if (decimals == 1) cents *= 10;
+        long value = Math.addExact(Math.multiplyExact(units, 100), cents);
+        return reais.startsWith("-") ? -value : value;
+    }
+
+    static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static int digit(String reais, int index) {
+        char c = reais.charAt(index);
+        if (c < '0' || c > '9') throw new IllegalArgumentException("valor inválido: " + reais);
+        return c - '0';
+    }
+}
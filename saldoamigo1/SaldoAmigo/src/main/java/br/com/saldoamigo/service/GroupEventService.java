@@ -0,0 +1,174 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.GroupEventDto;
+import br.com.saldoamigo.exception.ResourceNotFoundException;
+import br.com.saldoamigo.repository.GroupRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Eventos de transações por grupo, enviados por SSE. Cada grupo com assinantes tem um único sink e cada
+// evento é serializado uma vez para todos eles. Cada assinante tem seu próprio buffer limitado: quem não
+// acompanhar recebe "reload" e tem o fluxo encerrado, sem atrasar os demais.
+@Service
+public class GroupEventService {
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${saldoamigo.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${saldoamigo.events.heartbeat:15s}")
+    private Duration heartbeat;
+
+    // Tempo máximo de cada conexão, independente do timeout assíncrono do MVC (saldoamigo.export.timeout).
+    // Zero mantém a conexão aberta enquanto o cliente quiser
+    @Value("${saldoamigo.events.timeout:0s}")
+    private Duration timeout;
+
+    // Enviado como "retry:" no início do fluxo: espera do EventSource antes de reconectar após um corte
+    @Value("${saldoamigo.events.retry:3s}")
+    private Duration retry;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("groups.events.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public Flux<ServerSentEvent<String>> subscribe(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(groupId, (id, current) -> {
+                Channel joined = current == null ? new Channel() : current;
+                joined.subscribers++;
+                return joined;
+            });
+            subscribers.incrementAndGet();
+            // O primeiro comentário, imediato, envia os cabeçalhos (o EventSource só dispara "open" com eles);
+            // os seguintes mantêm a conexão aberta em proxies que derrubam conexões ociosas
+            Flux<ServerSentEvent<String>> keepAlive = Flux.interval(Duration.ZERO, heartbeat)
+                    .map(tick -> ServerSentEvent.<String>builder().comment("keep-alive").build());
+            return Flux.merge(channel.sink.asFlux(), keepAlive)
+                    .onBackpressureBuffer(bufferSize)
+                    .onErrorResume(Exceptions::isOverflow, e -> Mono.just(event(GroupEventDto.reload(groupId))))
+                    .doFinally(signal -> {
+                        subscribers.decrementAndGet();
+                        channels.computeIfPresent(groupId, (id, current) -> --current.subscribers == 0 ? null : current);
+                    });
+        });
+    }
+
+    // Escreve o fluxo pelo SseEmitter para usar o timeout acima. As escritas rodam fora da thread que publica,
+    // um evento por vez: um cliente lento acumula no buffer do fluxo em vez de bloquear quem publicou
+    public SseEmitter emitter(Long groupId) {
+        Flux<ServerSentEvent<String>> events = subscribe(groupId);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        BaseSubscriber<ServerSentEvent<String>> writer = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                if (send(SseEmitter.event().reconnectTime(retry.toMillis()))) request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                if (send(builder(event))) request(1);
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                emitter.complete();
+            }
+
+            @Override
+            protected void hookOnError(Throwable error) {
+                emitter.completeWithError(error);
+            }
+
+            // Falha de escrita é o cliente que foi embora: encerra a assinatura
+            private boolean send(SseEmitter.SseEventBuilder event) {
+                try {
+                    emitter.send(event);
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    cancel();
+                    return false;
+                }
+            }
+        };
+        emitter.onCompletion(writer::dispose);
+        emitter.onTimeout(writer::dispose);
+        emitter.onError(error -> writer.dispose());
+        events.publishOn(Schedulers.boundedElastic(), 1).subscribe(writer);
+        return emitter;
+    }
+
+    // Depois do commit, para que ninguém receba uma alteração que ainda pode ser desfeita
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(GroupEventDto groupEvent) {
+        Channel channel = channels.get(groupEvent.groupId());
+        if (channel == null) return;
+        ServerSentEvent<String> event = event(groupEvent);
+        // O sink não aceita emissões concorrentes
+        synchronized (channel) {
+            channel.sink.tryEmitNext(event);
+        }
+    }
+
+    private ServerSentEvent<String> event(GroupEventDto groupEvent) {
+        try {
+            return ServerSentEvent.builder(objectMapper.writeValueAsString(groupEvent))
+                    .event(groupEvent.type().eventName())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder builder(ServerSentEvent<String> event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (event.event() != null) builder.name(event.event());
+        if (event.comment() != null) builder.comment(event.comment());
+        if (event.data() != null) builder.data(event.data());
+        return builder;
+    }
+
+    private static final class Channel {
+        // Entrega a cada assinante conforme a demanda dele; como todos têm buffer, nenhum evento é descartado aqui
+        private final Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
@@ -1,24 +1,60 @@
 package br.com.saldoamigo.service;
 
 import br.com.saldoamigo.dto.AccountDto;
+import br.com.saldoamigo.dto.AccountPeriodTotalDto;
+import br.com.saldoamigo.dto.AccountSummaryDto;
 import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.GroupReportDto;
+import br.com.saldoamigo.dto.GroupSummaryDto;
+import br.com.saldoamigo.dto.PeriodTotalDto;
+import br.com.saldoamigo.dto.ReportGranularity;
+import br.com.saldoamigo.exception.BadRequestException;
+import br.com.saldoamigo.exception.PreconditionFailedException;
 import br.com.saldoamigo.exception.ResourceNotFoundException;
 import br.com.saldoamigo.mapper.CustomModelMapper;
 import br.com.saldoamigo.model.GroupModel;
 import br.com.saldoamigo.repository.GroupRepository;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import br.com.saldoamigo.repository.UserRepository;
+import br.com.saldoamigo.repository.projection.AccountTotalRow;
+import br.com.saldoamigo.repository.projection.MonthlyTotalRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class GroupService {
 
+    private static final int MAX_REPORT_PERIODS = 240;
+
     @Autowired
     private GroupRepository repository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private GroupMonthlyTotalRepository groupMonthlyTotalRepository;
+
+    // O usuário vem como referência só com id; getReferenceById dá o nome de usuário à resposta
+    @Transactional
     public GroupDto create(GroupDto groupDto) {
         GroupModel groupModel = CustomModelMapper.parseObject(groupDto, GroupModel.class);
+        if (groupDto.getUser() != null) groupModel.setUser(userRepository.getReferenceById(groupDto.getUser().getId()));
         return CustomModelMapper.parseObject(repository.save(groupModel), GroupDto.class);
     }
 
@@ -27,16 +63,21 @@ public class GroupService {
         return CustomModelMapper.parseObject(found, GroupDto.class);
     }
 
-    public GroupDto update(GroupDto groupDto) {
+    public GroupDto update(GroupDto groupDto, Long expectedVersion) {
         GroupModel found = repository.findById(groupDto.getId()).orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado!"));
+        if (expectedVersion != null && found.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Grupo alterado por outra requisição!");
+        }
         found.setName(groupDto.getName());
         found.setDescription(groupDto.getDescription());
         return CustomModelMapper.parseObject(repository.save(found), GroupDto.class);
     }
 
+    @Transactional
     public void delete(Long id) {
-        GroupModel found = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado!"));
-        repository.delete(found);
+        if (repository.removeById(id) == 0) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
     }
 
     public Page<GroupDto> findAll(Pageable pageable) {
@@ -51,4 +92,88 @@ public class GroupService {
         var groups = repository.findByUserId(userId, pageable);
         return groups.map(group -> CustomModelMapper.parseObject(group, GroupDto.class));
     }
+
+    public String etagByUserId(Long userId) {
+        return repository.findListVersionByUserId(userId).etag();
+    }
+
+    public GroupSummaryDto summary(Long id) {
+        if (!repository.existsById(id)) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
+        var totals = groupBalanceRepository.findTotalsByGroupId(id);
+
+        long total = 0;
+        long count = 0;
+        for (AccountTotalRow accountTotal : totals) {
+            total += accountTotal.totalCents();
+            count += accountTotal.count();
+        }
+
+        // Divisão igualitária entre as contas que participaram do grupo; os centavos que sobram da
+        // divisão ficam com as primeiras contas, para que os saldos líquidos somem exatamente zero
+        long share = totals.isEmpty() ? 0 : Math.floorDiv(total, totals.size());
+        long remainder = totals.isEmpty() ? 0 : Math.floorMod(total, totals.size());
+        List<AccountSummaryDto> accounts = new ArrayList<>(totals.size());
+        for (int i = 0; i < totals.size(); i++) {
+            AccountTotalRow accountTotal = totals.get(i);
+            long accountShare = i < remainder ? share + 1 : share;
+            accounts.add(new AccountSummaryDto(
+                    accountTotal.accountId(),
+                    accountTotal.accountName(),
+                    accountTotal.totalCents(),
+                    accountTotal.count(),
+                    accountTotal.totalCents() - accountShare));
+        }
+        return new GroupSummaryDto(id, total, count, accounts);
+    }
+
+    // Lido de group_monthly_totals: o custo depende do número de períodos e de contas, não do número de transações.
+    // Os limites são alinhados ao início e ao fim dos períodos, e períodos sem transações vêm zerados.
+    public GroupReportDto report(Long id, YearMonth from, YearMonth to, String granularity) {
+        ReportGranularity step = ReportGranularity.of(granularity);
+        YearMonth last = step.start(to != null ? to : YearMonth.now());
+        YearMonth first = step.start(from != null ? from : last.minusMonths(11));
+        if (first.isAfter(last)) {
+            throw new BadRequestException("Período inválido! O início deve ser anterior ao fim.");
+        }
+        int periodCount = (int) (ChronoUnit.MONTHS.between(first, last) / step.months()) + 1;
+        if (periodCount > MAX_REPORT_PERIODS) {
+            throw new BadRequestException("Período muito longo para a granularidade informada!");
+        }
+        if (!repository.existsById(id)) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
+
+        List<PeriodTotalDto> periods = new ArrayList<>(periodCount);
+        List<Map<Long, AccountPeriodTotalDto>> accounts = new ArrayList<>(periodCount);
+        for (YearMonth start = first; !start.isAfter(last); start = start.plusMonths(step.months())) {
+            YearMonth end = start.plusMonths(step.months() - 1);
+            periods.add(new PeriodTotalDto(start.atDay(1), end.atEndOfMonth(), 0, 0, null));
+            accounts.add(new LinkedHashMap<>());
+        }
+
+        YearMonth lastMonth = last.plusMonths(step.months() - 1);
+        var rows = groupMonthlyTotalRepository.findByGroupIdAndMonthBetween(id, first.atDay(1), lastMonth.atDay(1));
+        long total = 0;
+        long count = 0;
+        for (MonthlyTotalRow row : rows) {
+            int index = (int) (ChronoUnit.MONTHS.between(first, YearMonth.from(row.month())) / step.months());
+            PeriodTotalDto period = periods.get(index);
+            period.setTotalCents(period.getTotalCents() + row.totalCents());
+            period.setCount(period.getCount() + row.count());
+            AccountPeriodTotalDto account = accounts.get(index).computeIfAbsent(row.accountId(),
+                    accountId -> new AccountPeriodTotalDto(accountId, row.accountName(), 0, 0));
+            account.setTotalCents(account.getTotalCents() + row.totalCents());
+            account.setCount(account.getCount() + row.count());
+            total += row.totalCents();
+            count += row.count();
+        }
+        for (int i = 0; i < periods.size(); i++) {
+            List<AccountPeriodTotalDto> periodAccounts = new ArrayList<>(accounts.get(i).values());
+            periodAccounts.sort(Comparator.comparing(AccountPeriodTotalDto::getAccountName));
+            periods.get(i).setAccounts(periodAccounts);
+        }
+        return new GroupReportDto(id, step.name().toLowerCase(), first.atDay(1), lastMonth.atEndOfMonth(), total, count, periods);
+    }
 }
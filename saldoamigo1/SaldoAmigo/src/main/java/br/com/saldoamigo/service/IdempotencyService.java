@@ -0,0 +1,114 @@
+package br.com.saldoamigo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Respostas já enviadas para cada (usuário, Idempotency-Key). As recentes ficam em memória; a tabela
+// idempotency_keys cobre o que saiu da memória, reinícios e outras instâncias. Usa só JDBC, sem JPA.
+@Service
+public class IdempotencyService {
+
+    private static final String SELECT = "select request_hash, status, content_type, etag, location, body " +
+            "from idempotency_keys where scope = ? and idempotency_key = ? and created_at > ?";
+
+    // Reserva a chave; uma reserva expirada, ou abandonada por uma requisição que não terminou, pode ser retomada
+    private static final String RESERVE = "insert into idempotency_keys (scope, idempotency_key, request_hash, created_at) " +
+            "values (?, ?, ?, ?) on conflict (scope, idempotency_key) do update set " +
+            "request_hash = excluded.request_hash, status = null, content_type = null, etag = null, location = null, " +
+            "body = null, created_at = excluded.created_at " +
+            "where idempotency_keys.created_at <= ? or (idempotency_keys.status is null and idempotency_keys.created_at <= ?)";
+
+    private static final String COMPLETE = "update idempotency_keys set status = ?, content_type = ?, etag = ?, location = ?, body = ? " +
+            "where scope = ? and idempotency_key = ?";
+
+    private static final String RELEASE = "delete from idempotency_keys where scope = ? and idempotency_key = ? and status is null";
+
+    private static final String PURGE = "delete from idempotency_keys where created_at <= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${saldoamigo.idempotency.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${saldoamigo.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${saldoamigo.idempotency.lease:1m}")
+    private Duration lease;
+
+    private Cache<String, StoredResponse> responses;
+
+    // status 0 indica que a requisição original ainda está em andamento
+    public record StoredResponse(String requestHash, int status, String contentType, String etag, String location, byte[] body) {
+
+        public boolean inProgress() {
+            return status == 0;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "http.idempotency");
+    }
+
+    public StoredResponse find(String scope, String key) {
+        StoredResponse cached = responses.getIfPresent(cacheKey(scope, key));
+        if (cached != null) return cached;
+
+        List<StoredResponse> stored = jdbcTemplate.query(SELECT, (resultSet, row) -> new StoredResponse(
+                resultSet.getString(1), resultSet.getInt(2), resultSet.getString(3),
+                resultSet.getString(4), resultSet.getString(5), resultSet.getBytes(6)),
+                scope, key, Timestamp.from(Instant.now().minus(ttl)));
+        if (stored.isEmpty()) return null;
+        StoredResponse response = stored.get(0);
+        if (!response.inProgress()) responses.put(cacheKey(scope, key), response);
+        return response;
+    }
+
+    public boolean reserve(String scope, String key, String requestHash) {
+        Instant now = Instant.now();
+        return jdbcTemplate.update(RESERVE, scope, key, requestHash, Timestamp.from(now),
+                Timestamp.from(now.minus(ttl)), Timestamp.from(now.minus(lease))) > 0;
+    }
+
+    public void complete(String scope, String key, StoredResponse response) {
+        jdbcTemplate.update(COMPLETE, response.status(), response.contentType(), response.etag(), response.location(),
+                response.body(), scope, key);
+        responses.put(cacheKey(scope, key), response);
+    }
+
+    public void release(String scope, String key) {
+        jdbcTemplate.update(RELEASE, scope, key);
+    }
+
+    @Scheduled(fixedDelayString = "${saldoamigo.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        jdbcTemplate.update(PURGE, Timestamp.from(Instant.now().minus(ttl)));
+    }
+
+    private static String cacheKey(String scope, String key) {
+        return scope + '\n' + key;
+    }
+}
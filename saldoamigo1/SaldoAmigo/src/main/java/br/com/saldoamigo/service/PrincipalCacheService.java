@@ -0,0 +1,51 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+public class PrincipalCacheService {
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${saldoamigo.principal-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${saldoamigo.principal-cache.ttl:60s}")
+    private Duration ttl;
+
+    // Email -> usuário autenticado; emails inexistentes não são armazenados
+    private LoadingCache<String, UserDetails> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(repository::findByEmail);
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
+
+    public UserDetails findByEmail(String email) {
+        return principals.get(email);
+    }
+
+    public void evict(String email) {
+        if (email != null) principals.invalidate(email);
+    }
+}
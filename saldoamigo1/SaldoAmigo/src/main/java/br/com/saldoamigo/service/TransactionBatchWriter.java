@@ -0,0 +1,267 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.exception.ServiceUnavailableException;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Gravação em grupo das transações criadas (saldoamigo.group-commit.enabled). As requisições entram em
+// uma fila limitada e uma única thread grava os lotes: um insert de várias linhas e um commit por lote,
+// fechado ao atingir max-batch-size ou após max-delay. Quem chamou só recebe o id depois do commit.
+@Service
+public class TransactionBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionBatchWriter.class);
+
+    // Os ids são reservados antes do insert para que cada requisição receba o seu, na ordem do lote
+    private static final String NEXT_IDS = "select nextval('transactions_id_seq') from generate_series(1, ?)";
+
+    // Com reWriteBatchedInserts=true o driver envia o lote como um único insert de várias linhas
+    private static final String INSERT_TRANSACTION = "insert into transactions (id, value_cents, date, account_id, group_id) values (?, ?, ?, ?, ?)";
+
+    // Os nomes da conta e do grupo voltam na resposta e no evento de criação, como nas listagens
+    private static final String SELECT_NAMES = "select t.id, a.name, g.name from transactions t " +
+            "join accounts a on a.id = t.account_id join groups g on g.id = t.group_id where t.id = any(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private GroupMonthlyTotalRepository groupMonthlyTotalRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${saldoamigo.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${saldoamigo.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${saldoamigo.group-commit.max-delay:2ms}")
+    private Duration maxDelay;
+
+    @Value("${saldoamigo.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${saldoamigo.group-commit.timeout:5s}")
+    private Duration timeout;
+
+    private BlockingQueue<PendingTransaction> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private DistributionSummary batchSizes;
+
+    private Counter commits;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("transactions.group-commit.batch.size").register(meterRegistry);
+        commits = Counter.builder("transactions.group-commit.commits").register(meterRegistry);
+        Gauge.builder("transactions.group-commit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        running = true;
+        writer = new Thread(this::run, "transaction-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Espera o lote já iniciado e grava o que ainda estiver na fila
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.interrupt();
+        writer.join(timeout.toMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TransactionDto create(TransactionDto transactionDto) {
+        if (!running) throw new ServiceUnavailableException("Gravação de transações indisponível!");
+        // A data é sempre a do dia, como no @PrePersist do TransactionModel
+        PendingTransaction pending = new PendingTransaction(transactionDto.getValueCents(), LocalDate.now(),
+                transactionDto.getAccount().getId(), transactionDto.getGroup().getId());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            if (!queue.offer(pending, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException("Fila de gravação de transações cheia!");
+            }
+            long id;
+            try {
+                id = pending.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Se o escritor ainda não pegou a transação ela é descartada; se já pegou, o commit está em andamento
+                if (pending.taken.compareAndSet(false, true)) {
+                    throw new ServiceUnavailableException("Tempo esgotado ao gravar a transação!");
+                }
+                id = pending.result.get();
+            }
+            return new TransactionDto(id, pending.valueCents, pending.date,
+                    new AccountReferenceDto(pending.accountId, pending.accountName),
+                    new GroupReferenceDto(pending.groupId, pending.groupName), 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Gravação da transação interrompida!");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void run() {
+        List<PendingTransaction> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            batch.removeIf(pending -> !pending.taken.compareAndSet(false, true));
+            if (!batch.isEmpty()) write(batch);
+            batch.clear();
+        }
+    }
+
+    // Espera a primeira transação e junta as que chegarem até o lote encher ou o prazo acabar
+    private void collect(List<PendingTransaction> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatchSize || remaining <= 0) return;
+            PendingTransaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingTransaction> batch) {
+        try {
+            List<Long> ids = insert(batch);
+            for (int i = 0; i < batch.size(); i++) batch.get(i).result.complete(ids.get(i));
+        } catch (RuntimeException e) {
+            // Uma transação inválida derruba o lote inteiro; as demais são gravadas uma a uma
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            logger.debug("Lote de {} transações recusado, gravando individualmente", batch.size(), e);
+            for (PendingTransaction pending : batch) write(List.of(pending));
+        }
+    }
+
+    private List<Long> insert(List<PendingTransaction> batch) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> next = jdbcTemplate.queryForList(NEXT_IDS, Long.class, batch.size());
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                PendingTransaction pending = batch.get(i);
+                rows.add(new Object[]{next.get(i), pending.valueCents, Date.valueOf(pending.date), pending.accountId, pending.groupId});
+            }
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+            updateBalances(batch);
+            readNames(batch, next);
+            return next;
+        });
+        commits.increment();
+        batchSizes.record(batch.size());
+        return ids;
+    }
+
+    private void readNames(List<PendingTransaction> batch, List<Long> ids) {
+        Map<Long, PendingTransaction> byId = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) byId.put(ids.get(i), batch.get(i));
+        jdbcTemplate.query(SELECT_NAMES, resultSet -> {
+            PendingTransaction pending = byId.get(resultSet.getLong(1));
+            pending.accountName = resultSet.getString(2);
+            pending.groupName = resultSet.getString(3);
+        }, (Object) ids.toArray(new Long[0]));
+    }
+
+    // Um upsert por conta e por mês do lote, como na importação
+    private void updateBalances(List<PendingTransaction> batch) {
+        Map<List<Long>, long[]> balances = new HashMap<>();
+        Map<MonthKey, long[]> months = new HashMap<>();
+        for (PendingTransaction pending : batch) {
+            long[] balance = balances.computeIfAbsent(List.of(pending.groupId, pending.accountId), key -> new long[3]);
+            balance[0] += pending.valueCents;
+            balance[1]++;
+            balance[2] = Math.max(balance[2], pending.date.toEpochDay());
+            long[] month = months.computeIfAbsent(new MonthKey(pending.groupId, pending.accountId, pending.date.withDayOfMonth(1)),
+                    key -> new long[2]);
+            month[0] += pending.valueCents;
+            month[1]++;
+        }
+        balances.forEach((key, delta) ->
+                groupBalanceRepository.add(key.get(0), key.get(1), delta[0], delta[1], LocalDate.ofEpochDay(delta[2])));
+        months.forEach((key, delta) ->
+                groupMonthlyTotalRepository.add(key.groupId(), key.accountId(), key.month(), delta[0], delta[1]));
+    }
+
+    private static final class PendingTransaction {
+        private final long valueCents;
+        private final LocalDate date;
+        private final long accountId;
+        private final long groupId;
+        private String accountName;
+        private String groupName;
+        // Completado depois do commit; os nomes lidos no lote ficam visíveis a quem espera por ele
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        // Marcada pelo escritor ao incluir no lote ou por quem desistiu de esperar, o que vier primeiro
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        PendingTransaction(long valueCents, LocalDate date, long accountId, long groupId) {
+            this.valueCents = valueCents;
+            this.date = date;
+            this.accountId = accountId;
+            this.groupId = groupId;
+        }
+    }
+
+    private record MonthKey(long groupId, long accountId, LocalDate month) {
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.exception.BadRequestException;
+import br.com.saldoamigo.exception.ResourceNotFoundException;
+import br.com.saldoamigo.repository.AccountRepository;
+import br.com.saldoamigo.repository.GroupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Service
+public class TransactionExportService {
+
+    private static final String SELECT_BY_GROUP = "select id, value_cents, date, account_id, group_id from transactions where group_id = ? order by date, id";
+
+    private static final String SELECT_BY_ACCOUNT = "select id, value_cents, date, account_id, group_id from transactions where account_id = ? order by date, id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Value("${saldoamigo.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate cursorTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // O driver do Postgres só usa cursor (fetch size) com autocommit desligado, por isso a leitura roda em transação
+    @PostConstruct
+    void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportByGroupId(Long groupId, String format) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
+        return export(SELECT_BY_GROUP, groupId, format);
+    }
+
+    public StreamingResponseBody exportByAccountId(Long accountId, String format) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Conta não encontrada!");
+        }
+        return export(SELECT_BY_ACCOUNT, accountId, format);
+    }
+
+    private StreamingResponseBody export(String sql, Long id, String format) {
+        RowWriter rowWriter = rowWriter(format);
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            rowWriter.header(writer);
+            readOnlyTransaction.executeWithoutResult(status ->
+                    cursorTemplate.query(sql, resultSet -> {
+                        try {
+                            rowWriter.row(writer, resultSet);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, id));
+            writer.flush();
+        };
+    }
+
+    private RowWriter rowWriter(String format) {
+        if ("csv".equalsIgnoreCase(format)) return new CsvWriter();
+        if ("ndjson".equalsIgnoreCase(format)) return new NdjsonWriter();
+        throw new BadRequestException("Formato de exportação inválido! Use csv ou ndjson.");
+    }
+
+    private interface RowWriter {
+        void header(Writer writer) throws IOException;
+
+        void row(Writer writer, ResultSet resultSet) throws IOException, SQLException;
+    }
+
+    private static class CsvWriter implements RowWriter {
+
+        @Override
+        public void header(Writer writer) throws IOException {
+            writer.write(TransactionImportService.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        // Sem o id, no formato lido pela importação
+        @Override
+        public void row(Writer writer, ResultSet resultSet) throws IOException, SQLException {
+            writer.write(Cents.format(resultSet.getLong(2)));
+            writer.write(',');
+            writer.write(resultSet.getString(3));
+            writer.write(',');
+            writer.write(Long.toString(resultSet.getLong(4)));
+            writer.write(',');
+            writer.write(Long.toString(resultSet.getLong(5)));
+            writer.write('\n');
+        }
+    }
+
+    private static class NdjsonWriter implements RowWriter {
+
+        @Override
+        public void header(Writer writer) {
+        }
+
+        @Override
+        public void row(Writer writer, ResultSet resultSet) throws IOException, SQLException {
+            writer.write("{\"id\":");
+            writer.write(Long.toString(resultSet.getLong(1)));
+            writer.write(",\"valueCents\":");
+            writer.write(Long.toString(resultSet.getLong(2)));
+            writer.write(",\"date\":\"");
+            writer.write(resultSet.getString(3));
+            writer.write("\",\"accountId\":");
+            writer.write(Long.toString(resultSet.getLong(4)));
+            writer.write(",\"groupId\":");
+            writer.write(Long.toString(resultSet.getLong(5)));
+            writer.write("}\n");
+        }
+    }
+}
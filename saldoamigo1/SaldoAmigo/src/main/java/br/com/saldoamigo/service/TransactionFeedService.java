@@ -0,0 +1,49 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.TransactionCursor;
+import br.com.saldoamigo.dto.TransactionDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+// Feed de transações do grupo como Flux: as fatias por chave (date, id) são buscadas sob demanda,
+// conforme o cliente consome; no máximo a fatia atual e a seguinte ficam em memória.
+@Service
+public class TransactionFeedService {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${saldoamigo.feed.chunk-size:200}")
+    private int chunkSize;
+
+    // O generate só consulta quando há pedido (request) de mais uma fatia, e o subscribeOn leva esses
+    // pedidos, e portanto a consulta JDBC bloqueante, para fora da thread que escreve a resposta
+    public Flux<TransactionDto> streamByGroupId(Long groupId, Sort.Direction direction) {
+        return Flux.<Slice<TransactionDto>, Position>generate(() -> new Position(null, true), (position, sink) -> {
+                    if (!position.more()) {
+                        sink.complete();
+                        return position;
+                    }
+                    Slice<TransactionDto> slice = transactionService.findByGroupIdAfter(groupId, position.after(), chunkSize, direction);
+                    sink.next(slice);
+                    return slice.hasNext() ? new Position(last(slice), true) : new Position(null, false);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Slice::getContent, 1);
+    }
+
+    private record Position(TransactionCursor after, boolean more) {
+    }
+
+    private static TransactionCursor last(Slice<TransactionDto> slice) {
+        List<TransactionDto> content = slice.getContent();
+        return TransactionCursor.of(content.get(content.size() - 1));
+    }
+}
@@ -0,0 +1,284 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.GroupEventDto;
+import br.com.saldoamigo.dto.ImportErrorDto;
+import br.com.saldoamigo.dto.ImportReportDto;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class TransactionImportService {
+
+    private static final String INSERT_TRANSACTION = "insert into transactions (value_cents, date, account_id, group_id) values (?, ?, ?, ?)";
+
+    // Colunas do CSV, na ordem lida aqui e escrita pela exportação: valor em reais, data, conta e grupo.
+    // Sem id, para que um arquivo exportado possa ser importado de volta
+    static final String CSV_HEADER = "value,date,account_id,group_id";
+
+    // Limita o relatório para que a memória não cresça com arquivos muito grandes
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private GroupMonthlyTotalRepository groupMonthlyTotalRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${saldoamigo.import.chunk-size:500}")
+    private int chunkSize;
+
+    public ImportReportDto importCsv(InputStream input) throws IOException {
+        return importRows(input, new CsvParser());
+    }
+
+    public ImportReportDto importNdjson(InputStream input) throws IOException {
+        return importRows(input, new NdjsonParser());
+    }
+
+    private ImportReportDto importRows(InputStream input, RowParser parser) throws IOException {
+        var progress = new ImportProgress();
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && parser.isHeader(line))) continue;
+            progress.processed++;
+            try {
+                chunk.add(parser.parse(lineNumber, line));
+            } catch (RuntimeException e) {
+                progress.fail(lineNumber, "Linha inválida: " + e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                flush(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) flush(chunk, progress);
+        // Um único reload por grupo ao final: quem acompanha o grupo busca a lista de novo só uma vez
+        progress.groupIds.forEach(groupId -> eventPublisher.publishEvent(GroupEventDto.reload(groupId)));
+        return progress.toReport();
+    }
+
+    // Cada lote é validado com duas consultas e gravado em uma única transação do banco
+    private void flush(List<ImportRow> chunk, ImportProgress progress) {
+        List<ImportRow> valid;
+        try {
+            valid = validate(chunk, progress);
+        } catch (RuntimeException e) {
+            for (ImportRow row : chunk) {
+                progress.fail(row.line(), "Erro ao validar o lote: " + e.getMessage());
+            }
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, valid, valid.size(), (ps, row) -> {
+                    ps.setLong(1, row.valueCents());
+                    ps.setDate(2, Date.valueOf(row.date()));
+                    ps.setLong(3, row.accountId());
+                    ps.setLong(4, row.groupId());
+                });
+                updateBalances(valid);
+            });
+            progress.imported += valid.size();
+            for (ImportRow row : valid) {
+                progress.groupIds.add(row.groupId());
+            }
+        } catch (RuntimeException e) {
+            for (ImportRow row : valid) {
+                progress.fail(row.line(), "Erro ao gravar o lote: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<ImportRow> validate(List<ImportRow> chunk, ImportProgress progress) {
+        Set<Long> accounts = existingIds("select id from accounts where id in (:ids)", chunk, true);
+        Set<Long> groups = existingIds("select id from groups where id in (:ids)", chunk, false);
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (!accounts.contains(row.accountId())) {
+                progress.fail(row.line(), "Conta não encontrada!");
+            } else if (!groups.contains(row.groupId())) {
+                progress.fail(row.line(), "Grupo não encontrado!");
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private Set<Long> existingIds(String sql, List<ImportRow> chunk, boolean accounts) {
+        Set<Long> ids = new HashSet<>();
+        for (ImportRow row : chunk) {
+            ids.add(accounts ? row.accountId() : row.groupId());
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, Map.of("ids", ids), Long.class));
+    }
+
+    private void updateBalances(List<ImportRow> rows) {
+        Map<List<Long>, BalanceDelta> deltas = new HashMap<>();
+        for (ImportRow row : rows) {
+            deltas.computeIfAbsent(List.of(row.groupId(), row.accountId()), key -> new BalanceDelta()).add(row);
+        }
+        deltas.forEach((key, delta) ->
+                groupBalanceRepository.add(key.get(0), key.get(1), delta.totalCents, delta.count, delta.lastDate));
+
+        Map<MonthKey, BalanceDelta> monthly = new HashMap<>();
+        for (ImportRow row : rows) {
+            monthly.computeIfAbsent(new MonthKey(row.groupId(), row.accountId(), row.date().withDayOfMonth(1)),
+                    key -> new BalanceDelta()).add(row);
+        }
+        monthly.forEach((key, delta) ->
+                groupMonthlyTotalRepository.add(key.groupId(), key.accountId(), key.month(), delta.totalCents, delta.count));
+    }
+
+    private record ImportRow(long line, long valueCents, LocalDate date, long accountId, long groupId) {
+    }
+
+    private record MonthKey(long groupId, long accountId, LocalDate month) {
+    }
+
+    private static class BalanceDelta {
+        private long totalCents;
+        private long count;
+        private LocalDate lastDate;
+
+        void add(ImportRow row) {
+            totalCents += row.valueCents();
+            count++;
+            if (lastDate == null || row.date().isAfter(lastDate)) lastDate = row.date();
+        }
+    }
+
+    private static class ImportProgress {
+        private long processed;
+        private long imported;
+        private long failed;
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        // Grupos com ao menos um lote gravado
+        private final Set<Long> groupIds = new HashSet<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportErrorDto(line, message));
+        }
+
+        ImportReportDto toReport() {
+            return new ImportReportDto(processed, imported, failed, errors, failed > errors.size());
+        }
+    }
+
+    private interface RowParser {
+        boolean isHeader(String line);
+
+        ImportRow parse(long line, String content);
+    }
+
+    // Colunas de CSV_HEADER. Aceita "," ou ";" (com vírgula decimal) como separador
+    private static class CsvParser implements RowParser {
+
+        @Override
+        public boolean isHeader(String line) {
+            String first = split(line)[0].trim();
+            return !first.isEmpty() && !Character.isDigit(first.charAt(0)) && first.charAt(0) != '-';
+        }
+
+        @Override
+        public ImportRow parse(long line, String content) {
+            String[] columns = split(content);
+            if (columns.length < 4) throw new IllegalArgumentException("esperadas 4 colunas (valor, data, conta, grupo)");
+            String value = columns[0].trim();
+            if (content.indexOf(';') >= 0) value = value.replace(".", "").replace(',', '.');
+            String date = columns[1].trim();
+            return new ImportRow(line,
+                    Cents.parse(value),
+                    date.isEmpty() ? LocalDate.now() : LocalDate.parse(date),
+                    Long.parseLong(columns[2].trim()),
+                    Long.parseLong(columns[3].trim()));
+        }
+
+        private static String[] split(String line) {
+            return line.split(line.indexOf(';') >= 0 ? ";" : ",", -1);
+        }
+    }
+
+    // Cada linha é um objeto no formato do TransactionDto ou com accountId/groupId planos.
+    // Sem valueCents, aceita o campo value em reais dos arquivos exportados antes dos centavos.
+    private class NdjsonParser implements RowParser {
+
+        @Override
+        public boolean isHeader(String line) {
+            return false;
+        }
+
+        @Override
+        public ImportRow parse(long line, String content) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(content);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON malformado");
+            }
+            JsonNode date = node.get("date");
+            return new ImportRow(line,
+                    valueCents(node),
+                    date == null || date.isNull() ? LocalDate.now() : LocalDate.parse(date.asText()),
+                    reference(node, "accountId", "account"),
+                    reference(node, "groupId", "group"));
+        }
+
+        private long valueCents(JsonNode node) {
+            JsonNode cents = node.get("valueCents");
+            if (cents != null && cents.isIntegralNumber() && cents.canConvertToLong()) return cents.asLong();
+            JsonNode reais = node.get("value");
+            if (reais != null && reais.isNumber()) return Cents.parse(reais.decimalValue().toPlainString());
+            throw new IllegalArgumentException("campo valueCents ausente");
+        }
+
+        private long reference(JsonNode node, String flatField, String objectField) {
+            JsonNode id = node.has(flatField) ? node.get(flatField) : node.path(objectField).get("id");
+            if (id == null || !id.canConvertToLong()) throw new IllegalArgumentException("campo " + flatField + " ausente");
+            return id.asLong();
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package br.com.saldoamigo.service;
 
+import br.com.saldoamigo.dto.GroupEventDto;
+import br.com.saldoamigo.dto.TransactionCursor;
 import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.exception.BadRequestException;
+import br.com.saldoamigo.exception.PreconditionFailedException;
 import br.com.saldoamigo.exception.ResourceNotFoundException;
 import br.com.saldoamigo.mapper.CustomModelMapper;
 import br.com.saldoamigo.model.AccountModel;
 import br.com.saldoamigo.model.GroupModel;
 import br.com.saldoamigo.model.TransactionModel;
 import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import br.com.saldoamigo.repository.GroupRepository;
 import br.com.saldoamigo.repository.TransactionRepository;
+import br.com.saldoamigo.repository.projection.TransactionRow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TransactionService {
 
+    private static final String DELETE_RETURNING = "delete from transactions where id in (:ids) " +
+            "returning id, group_id, account_id, date, value_cents";
+
+    private static final int MAX_BULK_DELETE = 1000;
+
     @Autowired
     private TransactionRepository repository;
 
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Autowired
+    private GroupMonthlyTotalRepository groupMonthlyTotalRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionBatchWriter batchWriter;
+
+    // Os eventos são entregues pelo GroupEventService depois do commit
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Com a gravação em grupo ligada, a requisição não abre transação própria: espera o commit do lote
     public TransactionDto create(TransactionDto transactionDto) {
-        TransactionModel transactionModel = CustomModelMapper.parseObject(transactionDto, TransactionModel.class);
-        return CustomModelMapper.parseObject(repository.save(transactionModel), TransactionDto.class);
+        requireValue(transactionDto);
+        if (batchWriter.isEnabled()) {
+            TransactionDto created = batchWriter.create(transactionDto);
+            eventPublisher.publishEvent(GroupEventDto.created(created));
+            return created;
+        }
+        return transactionTemplate.execute(status -> {
+            TransactionModel transactionModel = CustomModelMapper.parseObject(transactionDto, TransactionModel.class);
+            TransactionModel saved = repository.save(transactionModel);
+            addToBalance(saved);
+            TransactionDto created = CustomModelMapper.parseObject(repository.findRowById(saved.getId()), TransactionDto.class);
+            eventPublisher.publishEvent(GroupEventDto.created(created));
+            return created;
+        });
     }
 
     public TransactionDto findById(Long id) {
@@ -31,22 +93,71 @@ public class TransactionService {
         return CustomModelMapper.parseObject(found, TransactionDto.class);
     }
 
-    public TransactionDto update(TransactionDto transactionDto) {
+    @Transactional
+    public TransactionDto update(TransactionDto transactionDto, Long expectedVersion) {
+        requireValue(transactionDto);
         TransactionModel found = repository.findById(transactionDto.getId()).orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada!"));
-        found.setValue(transactionDto.getValue());
+        if (expectedVersion != null && found.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Transação alterada por outra requisição!");
+        }
+        subtractFromBalance(found);
+        long previousGroupId = found.getGroup().getId();
+        found.setValueCents(transactionDto.getValueCents());
         found.setDate(transactionDto.getDate());
         found.setAccount(CustomModelMapper.parseObject(transactionDto.getAccount(), AccountModel.class));
         found.setGroup(CustomModelMapper.parseObject(transactionDto.getGroup(), GroupModel.class));
-        return CustomModelMapper.parseObject(repository.save(found), TransactionDto.class);
+        // flush antecipado para devolver a versão já incrementada
+        TransactionModel saved = repository.saveAndFlush(found);
+        addToBalance(saved);
+        // As referências recebidas só têm o id; a projeção traz os nomes
+        TransactionDto updated = CustomModelMapper.parseObject(repository.findRowById(saved.getId()), TransactionDto.class);
+        // Mudar de grupo é uma remoção para quem acompanha o grupo antigo
+        if (saved.getGroup().getId() == previousGroupId) {
+            eventPublisher.publishEvent(GroupEventDto.updated(updated));
+        } else {
+            eventPublisher.publishEvent(GroupEventDto.deleted(previousGroupId, List.of(saved.getId())));
+            eventPublisher.publishEvent(GroupEventDto.created(updated));
+        }
+        return updated;
     }
 
+    @Transactional
     public void delete(Long id) {
-        TransactionModel found = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Transação não encontrada!"));
-        repository.delete(found);
+        List<DeletedTransaction> deleted = deleteReturning(List.of(id));
+        if (deleted.isEmpty()) {
+            throw new ResourceNotFoundException("Transação não encontrada!");
+        }
+        subtractFromBalances(deleted);
+    }
+
+    // Um único delete para todos os ids; se algum não existir, nada é removido
+    @Transactional
+    public void deleteAll(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.isEmpty() || distinct.size() > MAX_BULK_DELETE) {
+            throw new BadRequestException("Informe de 1 a " + MAX_BULK_DELETE + " IDs de transações!");
+        }
+        List<DeletedTransaction> deleted = deleteReturning(distinct);
+        if (deleted.size() < distinct.size()) {
+            for (DeletedTransaction transaction : deleted) distinct.remove(transaction.id());
+            throw new ResourceNotFoundException("Transações não encontradas: " + distinct);
+        }
+        subtractFromBalances(deleted);
+    }
+
+    // Os totais do grupo são apagados inteiros, sem precisar saber quais transações existiam
+    @Transactional
+    public void deleteByGroupId(Long groupId) {
+        if (repository.removeByGroupId(groupId) == 0 && !groupRepository.existsById(groupId)) {
+            throw new ResourceNotFoundException("Grupo não encontrado!");
+        }
+        groupBalanceRepository.deleteByGroupId(groupId);
+        groupMonthlyTotalRepository.deleteByGroupId(groupId);
+        eventPublisher.publishEvent(GroupEventDto.reload(groupId));
     }
 
     public Page<TransactionDto> findAll(Pageable pageable) {
-        return repository.findAll(pageable).map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
+        return repository.findAllRows(pageable).map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
     }
 
     public Page<TransactionDto> findByDate(LocalDate date, Pageable pageable) {
@@ -57,7 +168,118 @@ public class TransactionService {
         return repository.findByAccountId(accountId, pageable).map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
     }
 
+    public String etagByGroupId(Long groupId) {
+        return repository.findListVersionByGroupId(groupId).etag();
+    }
+
     public Page<TransactionDto> findByGroupId(Long groupId, Pageable pageable) {
         return repository.findByGroupId(groupId, pageable).map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
     }
+
+    public Slice<TransactionDto> findAfter(TransactionCursor after, int size, Sort.Direction direction) {
+        Pageable pageable = seekPageable(size, direction);
+        Slice<TransactionRow> transactions;
+        if (after == null) {
+            transactions = repository.findSliceBy(pageable);
+        } else if (direction.isAscending()) {
+            transactions = repository.findAfter(after.date(), after.id(), pageable);
+        } else {
+            transactions = repository.findBefore(after.date(), after.id(), pageable);
+        }
+        return transactions.map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
+    }
+
+    public Slice<TransactionDto> findByAccountIdAfter(Long accountId, TransactionCursor after, int size, Sort.Direction direction) {
+        Pageable pageable = seekPageable(size, direction);
+        Slice<TransactionRow> transactions;
+        if (after == null) {
+            transactions = repository.findSliceByAccountId(accountId, pageable);
+        } else if (direction.isAscending()) {
+            transactions = repository.findByAccountIdAfter(accountId, after.date(), after.id(), pageable);
+        } else {
+            transactions = repository.findByAccountIdBefore(accountId, after.date(), after.id(), pageable);
+        }
+        return transactions.map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
+    }
+
+    public Slice<TransactionDto> findByGroupIdAfter(Long groupId, TransactionCursor after, int size, Sort.Direction direction) {
+        Pageable pageable = seekPageable(size, direction);
+        Slice<TransactionRow> transactions;
+        if (after == null) {
+            transactions = repository.findSliceByGroupId(groupId, pageable);
+        } else if (direction.isAscending()) {
+            transactions = repository.findByGroupIdAfter(groupId, after.date(), after.id(), pageable);
+        } else {
+            transactions = repository.findByGroupIdBefore(groupId, after.date(), after.id(), pageable);
+        }
+        return transactions.map(transaction -> CustomModelMapper.parseObject(transaction, TransactionDto.class));
+    }
+
+    private Pageable seekPageable(int size, Sort.Direction direction) {
+        if (size <= 0) {
+            throw new BadRequestException("O tamanho da página deve ser maior que zero!");
+        }
+        return PageRequest.of(0, size, Sort.by(direction, "date", "id"));
+    }
+
+    // Sem valueCents o valor seria gravado como zero (o campo "value" em reais não é mais aceito)
+    private static void requireValue(TransactionDto transactionDto) {
+        if (transactionDto.getValueCents() == null) {
+            throw new BadRequestException("Informe o valor da transação em centavos (valueCents)!");
+        }
+    }
+
+    private void addToBalance(TransactionModel transaction) {
+        groupBalanceRepository.add(transaction.getGroup().getId(), transaction.getAccount().getId(),
+                transaction.getValueCents(), 1, transaction.getDate());
+        groupMonthlyTotalRepository.add(transaction.getGroup().getId(), transaction.getAccount().getId(),
+                transaction.getDate().withDayOfMonth(1), transaction.getValueCents(), 1);
+    }
+
+    private void subtractFromBalance(TransactionModel transaction) {
+        long groupId = transaction.getGroup().getId();
+        long accountId = transaction.getAccount().getId();
+        groupBalanceRepository.subtract(groupId, accountId, transaction.getValueCents(), transaction.getId());
+        groupBalanceRepository.deleteIfEmpty(groupId, accountId);
+        LocalDate month = transaction.getDate().withDayOfMonth(1);
+        groupMonthlyTotalRepository.subtract(groupId, accountId, month, transaction.getValueCents(), 1);
+        groupMonthlyTotalRepository.deleteIfEmpty(groupId, accountId, month);
+    }
+
+    private List<DeletedTransaction> deleteReturning(Collection<Long> ids) {
+        return namedJdbcTemplate.query(DELETE_RETURNING, Map.of("ids", ids), (resultSet, row) -> new DeletedTransaction(
+                resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                resultSet.getDate(4).toLocalDate(), resultSet.getLong(5)));
+    }
+
+    private void subtractFromBalances(List<DeletedTransaction> deleted) {
+        Map<List<Long>, long[]> balances = new HashMap<>();
+        Map<MonthKey, long[]> months = new HashMap<>();
+        Map<Long, List<Long>> idsByGroup = new HashMap<>();
+        for (DeletedTransaction transaction : deleted) {
+            idsByGroup.computeIfAbsent(transaction.groupId(), key -> new ArrayList<>()).add(transaction.id());
+            long[] balance = balances.computeIfAbsent(List.of(transaction.groupId(), transaction.accountId()), key -> new long[2]);
+            balance[0] += transaction.valueCents();
+            balance[1]++;
+            long[] month = months.computeIfAbsent(new MonthKey(transaction.groupId(), transaction.accountId(),
+                    transaction.date().withDayOfMonth(1)), key -> new long[2]);
+            month[0] += transaction.valueCents();
+            month[1]++;
+        }
+        balances.forEach((key, delta) -> {
+            groupBalanceRepository.subtractDeleted(key.get(0), key.get(1), delta[0], delta[1]);
+            groupBalanceRepository.deleteIfEmpty(key.get(0), key.get(1));
+        });
+        months.forEach((key, delta) -> {
+            groupMonthlyTotalRepository.subtract(key.groupId(), key.accountId(), key.month(), delta[0], delta[1]);
+            groupMonthlyTotalRepository.deleteIfEmpty(key.groupId(), key.accountId(), key.month());
+        });
+        idsByGroup.forEach((groupId, ids) -> eventPublisher.publishEvent(GroupEventDto.deleted(groupId, ids)));
+    }
+
+    private record DeletedTransaction(long id, long groupId, long accountId, LocalDate date, long valueCents) {
+    }
+
+    private record MonthKey(long groupId, long accountId, LocalDate month) {
+    }
 }
@@ -1,6 +1,8 @@
 package br.com.saldoamigo.service;
 
 import br.com.saldoamigo.dto.UserDto;
+import br.com.saldoamigo.dto.UserReferenceDto;
+import br.com.saldoamigo.exception.PreconditionFailedException;
 import br.com.saldoamigo.exception.ResourceNotFoundException;
 import br.com.saldoamigo.mapper.CustomModelMapper;
 import br.com.saldoamigo.model.UserModel;
@@ -10,6 +12,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
 
 @Service
 public class UserService {
@@ -17,9 +22,21 @@ public class UserService {
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private PrincipalCacheService principalCache;
+
+    @Autowired
+    private UsernameIndexService usernameIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public UserDto create(UserDto userDto) {
         UserModel userModel = CustomModelMapper.parseObject(userDto, UserModel.class);
-        return CustomModelMapper.parseObject(repository.save(userModel), UserDto.class);
+        UserModel saved = repository.save(userModel);
+        principalCache.evict(saved.getEmail());
+        usernameIndex.put(saved.getId(), saved.getUsername());
+        return CustomModelMapper.parseObject(saved, UserDto.class);
     }
 
     public UserDto findById(Long id) {
@@ -28,9 +45,13 @@ public class UserService {
         return CustomModelMapper.parseObject(found, UserDto.class);
     }
 
-    public UserDto update(UserDto userDto) {
+    public UserDto update(UserDto userDto, Long expectedVersion) {
         UserModel found = repository.findById(userDto.getId()).orElseThrow(
                 () -> new ResourceNotFoundException("Usuário não encontrado!"));
+        if (expectedVersion != null && found.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Usuário alterado por outra requisição!");
+        }
+        String previousEmail = found.getEmail();
         if (!found.getPassword().equals(userDto.getPassword())) {
             String encodedPassword = new BCryptPasswordEncoder().encode(userDto.getPassword());
             found.setPassword(encodedPassword);
@@ -41,13 +62,19 @@ public class UserService {
         found.setEmail(userDto.getEmail());
         found.setPhone(userDto.getPhone());
         found.setRole(userDto.getRole());
-        return CustomModelMapper.parseObject(repository.save(found), UserDto.class);
+        UserModel saved = repository.save(found);
+        principalCache.evict(previousEmail);
+        principalCache.evict(saved.getEmail());
+        usernameIndex.put(saved.getId(), saved.getUsername());
+        return CustomModelMapper.parseObject(saved, UserDto.class);
     }
 
+    // O delete roda em uma transação própria; cache e índice só são invalidados depois do commit
     public void delete(Long id) {
-        UserModel found = repository.findById(id).orElseThrow(
+        String email = transactionTemplate.execute(status -> repository.removeByIdReturningEmail(id)).orElseThrow(
                 () -> new ResourceNotFoundException("Usuário não encontrado!"));
-        repository.delete(found);
+        principalCache.evict(email);
+        usernameIndex.remove(id);
     }
 
     public Page<UserDto> findAll(Pageable pageable) {
@@ -60,4 +87,8 @@ public class UserService {
         return users.map(user -> CustomModelMapper.parseObject(user, UserDto.class));
     }
 
+    public List<UserReferenceDto> complete(String prefix, int limit) {
+        return usernameIndex.complete(prefix, limit);
+    }
+
 }
@@ -0,0 +1,102 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.UserReferenceDto;
+import br.com.saldoamigo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Índice em memória dos nomes de usuário para o autocompletar.
+// Vetor ordenado pela chave normalizada: leituras fazem busca binária sem trava,
+// escritas (raras) trocam o vetor inteiro por uma cópia.
+@Service
+public class UsernameIndexService {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    private record Entry(String key, long id, String username) {
+    }
+
+    @Autowired
+    private UserRepository repository;
+
+    private volatile Entry[] entries = new Entry[0];
+
+    @PostConstruct
+    void init() {
+        load(repository.findAllReferences());
+    }
+
+    synchronized void load(Collection<UserReferenceDto> users) {
+        Entry[] loaded = users.stream()
+                .filter(user -> user.getUsername() != null)
+                .map(user -> new Entry(fold(user.getUsername()), user.getId(), user.getUsername()))
+                .toArray(Entry[]::new);
+        Arrays.sort(loaded, ORDER);
+        entries = loaded;
+    }
+
+    public List<UserReferenceDto> complete(String prefix, int limit) {
+        Entry[] snapshot = entries;
+        String key = fold(prefix);
+        List<UserReferenceDto> found = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && found.size() < limit; i++) {
+            if (!snapshot[i].key().startsWith(key)) break;
+            found.add(new UserReferenceDto(snapshot[i].id(), snapshot[i].username()));
+        }
+        return found;
+    }
+
+    public synchronized void put(long id, String username) {
+        Entry[] current = without(entries, id);
+        if (username == null) {
+            entries = current;
+            return;
+        }
+        Entry entry = new Entry(fold(username), id, username);
+        int position = -Arrays.binarySearch(current, entry, ORDER) - 1;
+        Entry[] updated = new Entry[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, position);
+        updated[position] = entry;
+        System.arraycopy(current, position, updated, position + 1, current.length - position);
+        entries = updated;
+    }
+
+    public synchronized void remove(long id) {
+        entries = without(entries, id);
+    }
+
+    private static Entry[] without(Entry[] current, long id) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].id() == id) {
+                Entry[] updated = new Entry[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                return updated;
+            }
+        }
+        return current;
+    }
+
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key().compareTo(key) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
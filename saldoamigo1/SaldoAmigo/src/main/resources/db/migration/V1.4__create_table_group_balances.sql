@@ -0,0 +1,16 @@
+create table if not exists group_balances (
+    group_id bigint not null,
+    account_id bigint not null,
+    total numeric not null default 0,
+    count bigint not null default 0,
+    last_date date,
+    constraint pk_group_balances primary key (group_id, account_id),
+    constraint fk_group_balances_groups foreign key (group_id) references groups(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    constraint fk_group_balances_accounts foreign key (account_id) references accounts(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+insert into group_balances (group_id, account_id, total, count, last_date)
+select group_id, account_id, sum(value), count(*), max(date)
+from transactions
+group by group_id, account_id
+on conflict (group_id, account_id) do nothing;
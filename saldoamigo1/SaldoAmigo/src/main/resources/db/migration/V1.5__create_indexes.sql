@@ -0,0 +1,15 @@
+create extension if not exists pg_trgm;
+
+-- listagens de transações filtram por grupo, conta ou data e ordenam por (date, id)
+create index if not exists idx_transactions_group_date on transactions (group_id, date, id);
+create index if not exists idx_transactions_account_date on transactions (account_id, date, id);
+create index if not exists idx_transactions_date on transactions (date, id);
+
+create index if not exists idx_accounts_user on accounts (user_id);
+create index if not exists idx_groups_user on groups (user_id);
+
+-- buscas por trecho (ilike '%...%')
+create index if not exists idx_accounts_name_trgm on accounts using gin (name gin_trgm_ops);
+create index if not exists idx_accounts_city_trgm on accounts using gin (city gin_trgm_ops);
+create index if not exists idx_accounts_pix_key_trgm on accounts using gin (pix_key gin_trgm_ops);
+create index if not exists idx_groups_name_trgm on groups using gin (name gin_trgm_ops);
@@ -0,0 +1,4 @@
+alter table users add column if not exists version bigint not null default 0;
+alter table groups add column if not exists version bigint not null default 0;
+alter table accounts add column if not exists version bigint not null default 0;
+alter table transactions add column if not exists version bigint not null default 0;
@@ -0,0 +1,19 @@
+-- totais por grupo, conta e mês (month é sempre o primeiro dia do mês), mantidos junto com group_balances
+create table if not exists group_monthly_totals (
+    group_id bigint not null,
+    month date not null,
+    account_id bigint not null,
+    total numeric not null default 0,
+    count bigint not null default 0,
+    constraint pk_group_monthly_totals primary key (group_id, month, account_id),
+    constraint fk_group_monthly_totals_groups foreign key (group_id) references groups(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    constraint fk_group_monthly_totals_accounts foreign key (account_id) references accounts(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+create index if not exists idx_group_monthly_totals_account on group_monthly_totals (account_id);
+
+insert into group_monthly_totals (group_id, month, account_id, total, count)
+select group_id, date_trunc('month', date)::date, account_id, sum(value), count(*)
+from transactions
+group by group_id, date_trunc('month', date)::date, account_id
+on conflict (group_id, month, account_id) do nothing;
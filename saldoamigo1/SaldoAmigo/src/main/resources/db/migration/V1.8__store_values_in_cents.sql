@@ -0,0 +1,17 @@
+-- valores passam a ser centavos inteiros: somas exatas e sem conversão para BigDecimal na leitura
+alter table transactions rename column value to value_cents;
+alter table transactions alter column value_cents type bigint using round(value_cents * 100);
+
+-- os totais são refeitos a partir dos centavos já arredondados de cada transação
+alter table group_balances rename column total to total_cents;
+alter table group_balances alter column total_cents type bigint using 0;
+update group_balances b set total_cents = s.total_cents
+from (select group_id, account_id, sum(value_cents) as total_cents from transactions group by group_id, account_id) s
+where s.group_id = b.group_id and s.account_id = b.account_id;
+
+alter table group_monthly_totals rename column total to total_cents;
+alter table group_monthly_totals alter column total_cents type bigint using 0;
+update group_monthly_totals m set total_cents = s.total_cents
+from (select group_id, date_trunc('month', date)::date as month, account_id, sum(value_cents) as total_cents
+      from transactions group by 1, 2, 3) s
+where s.group_id = m.group_id and s.month = m.month and s.account_id = m.account_id;
@@ -0,0 +1,15 @@
+-- respostas das requisições com Idempotency-Key; status nulo indica requisição original ainda em andamento
+create table if not exists idempotency_keys (
+    scope varchar(255) not null,
+    idempotency_key varchar(255) not null,
+    request_hash varchar(64) not null,
+    status integer,
+    content_type varchar(255),
+    etag varchar(255),
+    location varchar(2048),
+    body bytea,
+    created_at timestamp not null,
+    constraint pk_idempotency_keys primary key (scope, idempotency_key)
+);
+
+create index if not exists idx_idempotency_keys_created_at on idempotency_keys (created_at);
@@ -0,0 +1,131 @@
+package br.com.saldoamigo.config;
+
+import br.com.saldoamigo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final IdempotencyService idempotencyService = new IdempotencyService();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(idempotencyService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotencyService, "maximumSize", 100L);
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(idempotencyService, "lease", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(idempotencyService, "init");
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        filter = new IdempotencyFilter(idempotencyService, new ObjectMapper());
+    }
+
+    @Test
+    void repeatedRequestReplaysTheStoredResponseWithoutRunningTheController() throws Exception {
+        MockHttpServletResponse first = execute(post("chave-1", "{\"valueCents\":1000}"));
+        MockHttpServletResponse retry = execute(post("chave-1", "{\"valueCents\":1000}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpServletResponse.SC_CREATED, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals(HttpServletResponse.SC_CREATED, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals("\"abc\"", retry.getHeader("ETag"));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() throws Exception {
+        execute(post("chave-2", "{\"valueCents\":1000}"));
+        MockHttpServletResponse other = execute(post("chave-2", "{\"valueCents\":2000}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(422, other.getStatus());
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotRecorded() throws Exception {
+        execute(post(null, "{\"valueCents\":1000}"));
+        execute(post(null, "{\"valueCents\":1000}"));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void cachedBodyCanBeReadWithReadListener() throws Exception {
+        StringBuilder read = new StringBuilder();
+        filter.doFilter(post("chave-3", "{\"valueCents\":1000}"), new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) read.append((char) input.read());
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    read.append('|');
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+        });
+
+        assertEquals("{\"valueCents\":1000}|", read.toString());
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            String body = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setStatus(HttpServletResponse.SC_CREATED);
+            http.setContentType("application/json");
+            http.setHeader("ETag", "\"abc\"");
+            http.getWriter().write("{\"id\":" + executions.incrementAndGet() + ",\"request\":" + body + "}");
+        });
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/transactions");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        return request;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.saldoamigo.config;
+
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import({ObservabilityConfig.class, SimpleMeterRegistry.class})
+class JpaRequestStatisticsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void countsStatementsAndEntityLoadsOfTheCurrentThreadOnly() {
+        UserModel user = entityManager.persist(new UserModel(0, "maria", "maria@saldoamigo.com", null, "secret", UserModel.UserRole.user, 0));
+        entityManager.persist(new AccountModel(7, "Conta", "maria@saldoamigo.com", "Jales", user, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        JpaRequestStatistics statistics = JpaRequestStatistics.begin();
+        try {
+            accountRepository.findById(7L);
+        } finally {
+            JpaRequestStatistics.end();
+        }
+        accountRepository.findAll();
+
+        assertEquals(1, statistics.statements);
+        assertEquals(2, statistics.entityLoads);
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.saldoamigo.controller;
+
+import br.com.saldoamigo.exception.GlobalExceptionHandler;
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Serviço real sobre H2: o ETag do PUT precisa ser a versão gravada, não a anterior ao flush
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import(AccountService.class)
+class AccountControllerETagTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountService service;
+
+    private MockMvc mockMvc;
+
+    private long accountId;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        AccountController controller = new AccountController();
+        ReflectionTestUtils.setField(controller, "service", service);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        UserModel user = entityManager.persist(new UserModel(0, "maria", "maria@saldoamigo.com", null, "secret", UserModel.UserRole.user, 0));
+        accountId = entityManager.persist(new AccountModel(1, "Conta", "pix", "Jales", user, 0)).getId();
+        userId = user.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void updateAnswersWithThePersistedVersion() throws Exception {
+        String etag = update("\"0\"", "Conta da Maria");
+        entityManager.flush();
+        entityManager.clear();
+        long persisted = entityManager.find(AccountModel.class, accountId).getVersion();
+        assertEquals("\"" + persisted + "\"", etag);
+
+        // O ETag devolvido serve como If-Match da próxima alteração
+        update(etag, "Conta conjunta");
+    }
+
+    private String update(String ifMatch, String name) throws Exception {
+        return mockMvc.perform(put("/accounts").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, ifMatch)
+                        .content("{\"id\": " + accountId + ", \"name\": \"" + name + "\", \"pixKey\": \"pix\", " +
+                                "\"city\": \"Jales\", \"user\": {\"id\": " + userId + "}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.saldoamigo.controller;
+
+import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.exception.GlobalExceptionHandler;
+import br.com.saldoamigo.exception.PreconditionFailedException;
+import br.com.saldoamigo.service.GroupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GroupControllerETagTest {
+
+    private final GroupService service = mock(GroupService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        GroupController controller = new GroupController();
+        ReflectionTestUtils.setField(controller, "service", service);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new GlobalExceptionHandler()).build();
+    }
+
+    @Test
+    void findByIdAnswersNotModifiedForCurrentVersion() throws Exception {
+        when(service.findById(7L)).thenReturn(new GroupDto(7, "Viagem", null, null, 3));
+
+        mockMvc.perform(get("/groups/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        mockMvc.perform(get("/groups/7").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listSkipsPageQueryWhenNothingChanged() throws Exception {
+        when(service.etagByUserId(5L)).thenReturn("\"2-9-4\"");
+
+        mockMvc.perform(get("/groups/find/user/5").header(HttpHeaders.IF_NONE_MATCH, "\"2-9-4\""))
+                .andExpect(status().isNotModified());
+        verify(service, never()).findByUserId(eq(5L), any());
+    }
+
+    @Test
+    void updateWithStaleIfMatchFails() throws Exception {
+        when(service.update(any(), eq(2L))).thenThrow(new PreconditionFailedException("Grupo alterado por outra requisição!"));
+
+        mockMvc.perform(put("/groups").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"id\": 7, \"name\": \"Viagem\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.saldoamigo.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SelfLinksTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/find/group/1");
+
+    @BeforeEach
+    void setUp() {
+        request.setContextPath("/api");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void matchesMethodOnLinks() {
+        assertSameLinks();
+    }
+
+    @Test
+    void matchesMethodOnLinksBehindProxy() {
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Host", "api.saldoamigo.com.br");
+        request.addHeader("X-Forwarded-Port", "443");
+        assertSameLinks();
+    }
+
+    private void assertSameLinks() {
+        long id = 9_007_199_254_740_993L;
+        assertSameLink(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(AccountController.class).findById(id)).withSelfRel(),
+                SelfLinks.of(AccountController.class).to(id));
+        assertSameLink(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(GroupController.class).findById(id)).withSelfRel(),
+                SelfLinks.of(GroupController.class).to(id));
+        assertSameLink(WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(TransactionController.class).findById(id)).withSelfRel(),
+                SelfLinks.of(TransactionController.class).to(id));
+    }
+
+    private static void assertSameLink(Link expected, Link actual) {
+        assertEquals(expected.getHref(), actual.getHref());
+        assertEquals(IanaLinkRelations.SELF, actual.getRel());
+        assertEquals(expected.isTemplated(), actual.isTemplated());
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.saldoamigo.dto;
+
+import br.com.saldoamigo.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCursorTest {
+
+    @Test
+    void encodedCursorRoundTrips() {
+        var cursor = new TransactionCursor(LocalDate.of(2024, 3, 15), 42L);
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void literalCursorIsAccepted() {
+        assertEquals(new TransactionCursor(LocalDate.of(2024, 3, 15), 42L), TransactionCursor.decode("2024-03-15,42"));
+    }
+
+    @Test
+    void blankCursorStartsFromFirstPage() {
+        assertNull(TransactionCursor.decode(""));
+        assertNull(TransactionCursor.decode(null));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(BadRequestException.class, () -> TransactionCursor.decode("not-a-cursor"));
+        assertThrows(BadRequestException.class, () -> TransactionCursor.decode("2024-13-40,1"));
+        assertThrows(BadRequestException.class, () -> TransactionCursor.decode("2024-03-15,abc"));
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.saldoamigo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.ToStringConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Confere os planos do SQL que os repositórios realmente executam contra os índices da V1.5: o Hibernate
+// registra o SQL gerado e o auto_explain do Postgres registra o plano de cada execução, com os parâmetros reais.
+// Precisa de Docker; sem ele os testes são ignorados.
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    private static final ToStringConsumer serverLog = new ToStringConsumer();
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "fsync=off",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0")
+            .withLogConsumer(serverLog);
+
+    private static boolean seeded;
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private static final Pageable BY_DATE_AND_ID = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "date", "id"));
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", CapturedSql.class::getName);
+    }
+
+    // O Flyway roda ao subir o contexto, então os dados entram no primeiro teste, fora da transação dele
+    @BeforeEach
+    void seed() throws SQLException {
+        if (seeded) return;
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (username, email, password) " +
+                    "select 'user ' || i, 'user' || i || '@saldoamigo.com', 'secret' from generate_series(1, 2000) i");
+            statement.execute("insert into accounts (id, name, pix_key, city, user_id) " +
+                    "select i, 'Conta ' || i, 'chave-' || i, 'Cidade ' || i, 1 + i % 2000 from generate_series(1, 20000) i");
+            statement.execute("insert into groups (name, user_id) " +
+                    "select 'Grupo ' || i, 1 + i % 2000 from generate_series(1, 5000) i");
+            statement.execute("insert into transactions (value_cents, date, account_id, group_id) " +
+                    "select i % 50000, date '2023-01-01' + i % 730, 1 + i % 20000, 1 + i % 5000 from generate_series(1, 200000) i");
+            statement.execute("analyze");
+        }
+        seeded = true;
+    }
+
+    @Test
+    void transactionListsUseCompositeIndexes() {
+        assertUses(plan(() -> transactionRepository.findSliceByGroupId(42L, BY_DATE_AND_ID)),
+                "idx_transactions_group_date", "transactions");
+        assertUses(plan(() -> transactionRepository.findSliceByAccountId(42L, BY_DATE_AND_ID)),
+                "idx_transactions_account_date", "transactions");
+        assertUses(plan(() -> transactionRepository.findByDate(LocalDate.of(2024, 3, 15), PageRequest.of(0, 20, Sort.by("id")))),
+                "idx_transactions_date", "transactions");
+    }
+
+    // Grupo, data e id entram na condição do índice: a busca começa na chave, sem percorrer as páginas anteriores
+    @Test
+    void groupSeekStartsAtTheKeyInTheCompositeIndex() {
+        String plan = plan(() -> transactionRepository.findByGroupIdAfter(42L, LocalDate.of(2024, 6, 1), 150000L, BY_DATE_AND_ID));
+        String indexCond = plan.lines().filter(line -> line.contains("Index Cond") && line.contains("ROW(")).findFirst().orElse("");
+        assertTrue(plan.contains("idx_transactions_group_date"), plan);
+        assertTrue(indexCond.contains("group_id") && indexCond.contains("ROW(date, id)"), plan);
+        assertFalse(plan.lines().anyMatch(line -> line.contains("Filter") && line.contains("date")), plan);
+    }
+
+    @Test
+    void ownerFiltersUseUserIndexes() {
+        assertUses(plan(() -> accountRepository.findByUserId(42L, FIRST_PAGE)), "idx_accounts_user", "accounts");
+        assertUses(plan(() -> groupRepository.findByUserId(42L, FIRST_PAGE)), "idx_groups_user", "groups");
+    }
+
+    @Test
+    void substringSearchesUseTrigramIndexes() {
+        assertUses(plan(() -> accountRepository.findByNameContainingIgnoreCase("conta 12345", FIRST_PAGE)),
+                "idx_accounts_name_trgm", "accounts");
+        assertUses(plan(() -> accountRepository.findByCityContainingIgnoreCase("cidade 4321", FIRST_PAGE)),
+                "idx_accounts_city_trgm", "accounts");
+        assertUses(plan(() -> accountRepository.findByPixKeyContainingIgnoreCase("chave-777", FIRST_PAGE)),
+                "idx_accounts_pix_key_trgm", "accounts");
+        assertUses(plan(() -> groupRepository.findByNameContainingIgnoreCase("grupo 2468", FIRST_PAGE)),
+                "idx_groups_name_trgm", "groups");
+    }
+
+    private static void assertUses(String plan, String index, String table) {
+        assertTrue(plan.contains(index) && !plan.contains("Seq Scan on " + table), plan);
+    }
+
+    // Plano da primeira consulta executada pela chamada (a da página; a contagem vem depois)
+    private static String plan(Runnable call) {
+        CapturedSql.statements.clear();
+        call.run();
+        if (CapturedSql.statements.isEmpty()) fail("Nenhum SQL executado");
+        String queryText = "Query Text: " + positional(CapturedSql.statements.get(0));
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            String log = serverLog.toUtf8String();
+            int at = log.lastIndexOf(queryText);
+            if (at >= 0) return planAt(log, at);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("Plano não encontrado no log do Postgres para: " + queryText);
+    }
+
+    // O plano segue a linha do Query Text, com as linhas indentadas por tabulação
+    private static String planAt(String log, int at) {
+        StringBuilder plan = new StringBuilder();
+        List<String> lines = log.substring(at).lines().toList();
+        plan.append(lines.get(0)).append('\n');
+        for (String line : lines.subList(1, lines.size())) {
+            if (!line.startsWith("\t")) break;
+            plan.append(line).append('\n');
+        }
+        return plan.toString();
+    }
+
+    // O driver envia os parâmetros como $1, $2...; é esse o texto registrado pelo auto_explain
+    private static String positional(String sql) {
+        StringBuilder sent = new StringBuilder(sql.length() + 8);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') sent.append('$').append(++parameter);
+            else sent.append(c);
+        }
+        return sent.toString();
+    }
+
+    private static Connection connection() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    // Registrado como hibernate.session_factory.statement_inspector: guarda o SQL gerado para cada consulta
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.saldoamigo.repository;
+
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.GroupModel;
+import br.com.saldoamigo.model.TransactionModel;
+import br.com.saldoamigo.model.UserModel;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda em H2 sem Flyway: valida apenas o número de comandos gerados pelo Hibernate nas listagens
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RepositoryStatementCountTest {
+
+    private static final int USERS = 5;
+    private static final int TRANSACTIONS = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private Statistics statistics;
+
+    private long groupId;
+
+    private long accountId;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        AccountModel[] accounts = new AccountModel[USERS];
+        GroupModel[] groups = new GroupModel[USERS];
+        for (int i = 0; i < USERS; i++) {
+            UserModel user = entityManager.persist(new UserModel(0, "user" + i, "user" + i + "@saldoamigo.com", null, "secret", UserModel.UserRole.user, 0));
+            accounts[i] = entityManager.persist(new AccountModel(i + 1, "Conta " + i, "pix" + i, "Jales", user, 0));
+            groups[i] = entityManager.persist(new GroupModel(0, "Grupo " + i, null, user, 0));
+        }
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            entityManager.persist(new TransactionModel(0, i, LocalDate.now(), accounts[i % USERS], groups[(i / 2) % 2], 0));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        groupId = groups[0].getId();
+        accountId = accounts[0].getId();
+        userId = accounts[0].getUser().getId();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void transactionPageByGroupUsesConstantStatements() {
+        var page = transactionRepository.findByGroupId(groupId, PageRequest.of(0, 10, Sort.by("date")));
+        page.forEach(transaction -> transaction.accountName());
+
+        assertEquals(10, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void transactionSliceByAccountUsesSingleStatement() {
+        var slice = transactionRepository.findSliceByAccountId(accountId, PageRequest.of(0, 5, Sort.by("date", "id")));
+        slice.forEach(transaction -> transaction.groupName());
+
+        assertEquals(5, slice.getNumberOfElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void transactionFindAllUsesConstantStatements() {
+        var page = transactionRepository.findAllRows(PageRequest.of(0, 20, Sort.by("date")));
+
+        assertEquals(20, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void accountAndGroupPagesUseConstantStatements() {
+        accountRepository.findAll(PageRequest.of(0, 10, Sort.by("name")));
+        accountRepository.findByUserId(userId, PageRequest.of(0, 10));
+        groupRepository.findAll(PageRequest.of(0, 10, Sort.by("name")));
+        groupRepository.findByUserId(userId, PageRequest.of(0, 10));
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void substringSearchesIgnoreCaseAndEscapeWildcards() {
+        var accounts = accountRepository.findByNameContainingIgnoreCase("CONTA 1", PageRequest.of(0, 10));
+        var groups = groupRepository.findByNameContainingIgnoreCase("upo", PageRequest.of(0, 10));
+
+        assertEquals(1, accounts.getTotalElements());
+        assertEquals(USERS, groups.getTotalElements());
+        assertEquals(0, accountRepository.findByPixKeyContainingIgnoreCase("%", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(USERS, accountRepository.findByCityContainingIgnoreCase("jAL", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void listVersionChangesWhenTransactionOrReferencedAccountChanges() {
+        var initial = transactionRepository.findListVersionByGroupId(groupId);
+        assertEquals(initial.etag(), transactionRepository.findListVersionByGroupId(groupId).etag());
+
+        AccountModel account = entityManager.find(AccountModel.class, accountId);
+        account.setName("Conta renomeada");
+        entityManager.flush();
+        var renamed = transactionRepository.findListVersionByGroupId(groupId);
+
+        entityManager.remove(entityManager.find(TransactionModel.class, renamed.maxId()));
+        entityManager.flush();
+        var removed = transactionRepository.findListVersionByGroupId(groupId);
+
+        assertTrue(!initial.etag().equals(renamed.etag()), renamed.etag());
+        assertEquals(renamed.count() - 1, removed.count());
+        assertEquals(1, accountRepository.findListVersionByUserId(userId).count());
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.saldoamigo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CentsTest {
+
+    @Test
+    void parsesReaisIntoExactCents() {
+        assertEquals(1234, Cents.parse("12.34"));
+        assertEquals(1250, Cents.parse("12.5"));
+        assertEquals(1200, Cents.parse("12"));
+        assertEquals(10, Cents.parse("0.1"));
+        assertEquals(-5, Cents.parse("-0.05"));
+        assertEquals(50, Cents.parse(".5"));
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimalsAndMalformedValues() {
+        assertThrows(IllegalArgumentException.class, () -> Cents.parse("1.005"));
+        assertThrows(IllegalArgumentException.class, () -> Cents.parse("1,50"));
+        assertThrows(IllegalArgumentException.class, () -> Cents.parse("-"));
+        assertThrows(IllegalArgumentException.class, () -> Cents.parse("1e3"));
+    }
+
+    @Test
+    void formatsCentsAsReais() {
+        assertEquals("12.34", Cents.format(1234));
+        assertEquals("0.05", Cents.format(5));
+        assertEquals("-0.50", Cents.format(-50));
+        assertEquals(Long.MIN_VALUE + 1, Cents.parse(Cents.format(Long.MIN_VALUE + 1)));
+    }
+}
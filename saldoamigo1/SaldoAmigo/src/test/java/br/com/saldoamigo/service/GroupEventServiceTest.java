@@ -0,0 +1,99 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.GroupEventDto;
+import br.com.saldoamigo.repository.GroupRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupEventServiceTest {
+
+    private final GroupEventService events = new GroupEventService();
+
+    @BeforeEach
+    void setUp() {
+        GroupRepository groupRepository = mock(GroupRepository.class);
+        when(groupRepository.existsById(anyLong())).thenReturn(true);
+        ReflectionTestUtils.setField(events, "groupRepository", groupRepository);
+        ReflectionTestUtils.setField(events, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(events, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(events, "bufferSize", 2);
+        ReflectionTestUtils.setField(events, "heartbeat", Duration.ofHours(1));
+        ReflectionTestUtils.setField(events, "timeout", Duration.ZERO);
+        ReflectionTestUtils.setField(events, "retry", Duration.ofSeconds(3));
+        ReflectionTestUtils.invokeMethod(events, "init");
+    }
+
+    @Test
+    void everySubscriberOfTheGroupReceivesTheEvent() throws Exception {
+        // Todos assinam antes da publicação, então os dois do grupo 1 dividem o mesmo canal
+        CompletableFuture<ServerSentEvent<String>> first = withoutComments(1L).next().toFuture();
+        CompletableFuture<ServerSentEvent<String>> second = withoutComments(1L).next().toFuture();
+        StepVerifier otherGroup = StepVerifier.create(withoutComments(2L))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verifyLater();
+        Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(events, "channels");
+        assertEquals(2, channels.size());
+
+        events.publish(GroupEventDto.deleted(1L, List.of(7L)));
+
+        for (CompletableFuture<ServerSentEvent<String>> subscriber : List.of(first, second)) {
+            ServerSentEvent<String> event = subscriber.get(1, TimeUnit.SECONDS);
+            assertEquals("deleted", event.event());
+            assertTrue(event.data().contains("\"ids\":[7]"));
+        }
+        otherGroup.verify(Duration.ofSeconds(1));
+
+        assertTrue(channels.isEmpty());
+    }
+
+    // O timeout da conexão vem de saldoamigo.events.timeout, não do timeout assíncrono das exportações
+    @Test
+    void emitterUsesTheEventsTimeout() {
+        SseEmitter unlimited = events.emitter(1L);
+        ReflectionTestUtils.setField(events, "timeout", Duration.ofMinutes(30));
+        SseEmitter limited = events.emitter(1L);
+
+        assertEquals(0L, unlimited.getTimeout());
+        assertEquals(Duration.ofMinutes(30).toMillis(), limited.getTimeout());
+        unlimited.complete();
+        limited.complete();
+    }
+
+    private Flux<ServerSentEvent<String>> withoutComments(long groupId) {
+        return events.subscribe(groupId).filter(event -> event.comment() == null);
+    }
+
+    // Um cliente que não lê acumula até bufferSize eventos; depois de recebê-los, vem reload e o fluxo termina
+    @Test
+    void slowSubscriberIsToldToReload() {
+        StepVerifier.create(events.subscribe(1L), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 3; id++) events.publish(GroupEventDto.deleted(1L, List.of(id)));
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(event -> !"reload".equals(event.event()))
+                .expectNextMatches(event -> "reload".equals(event.event()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.AccountSummaryDto;
+import br.com.saldoamigo.dto.GroupReportDto;
+import br.com.saldoamigo.dto.GroupSummaryDto;
+import br.com.saldoamigo.exception.BadRequestException;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import br.com.saldoamigo.repository.GroupRepository;
+import br.com.saldoamigo.repository.projection.AccountTotalRow;
+import br.com.saldoamigo.repository.projection.MonthlyTotalRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupServiceTest {
+
+    private final GroupRepository groupRepository = mock(GroupRepository.class);
+
+    private final GroupBalanceRepository balanceRepository = mock(GroupBalanceRepository.class);
+
+    private final GroupMonthlyTotalRepository monthlyTotalRepository = mock(GroupMonthlyTotalRepository.class);
+
+    private final GroupService service = new GroupService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "repository", groupRepository);
+        ReflectionTestUtils.setField(service, "groupBalanceRepository", balanceRepository);
+        ReflectionTestUtils.setField(service, "groupMonthlyTotalRepository", monthlyTotalRepository);
+        when(groupRepository.existsById(1L)).thenReturn(true);
+    }
+
+    // 1000 centavos entre 3 contas: as cotas são 334, 333 e 333, e os saldos líquidos somam zero
+    @Test
+    void splitsLeftoverCentsSoThatNetSharesAddUpToZero() {
+        when(balanceRepository.findTotalsByGroupId(1L)).thenReturn(List.of(
+                new AccountTotalRow(1, "Ana", 1000, 1),
+                new AccountTotalRow(2, "Bia", 0, 0),
+                new AccountTotalRow(3, "Caio", 0, 0)));
+
+        GroupSummaryDto summary = service.summary(1L);
+
+        assertEquals(1000, summary.getTotalCents());
+        assertEquals(List.of(666L, -333L, -333L),
+                summary.getAccounts().stream().map(AccountSummaryDto::getNetShareCents).toList());
+    }
+
+    @Test
+    void groupsMonthlyTotalsIntoAlignedQuartersIncludingEmptyOnes() {
+        when(monthlyTotalRepository.findByGroupIdAndMonthBetween(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 9, 1)))
+                .thenReturn(List.of(
+                        row("2024-01", 2, "Bia", 10, 1),
+                        row("2024-02", 2, "Bia", 20, 2),
+                        row("2024-03", 1, "Ana", 5, 1),
+                        row("2024-07", 1, "Ana", 7, 1)));
+
+        GroupReportDto report = service.report(1L, YearMonth.of(2024, 2), YearMonth.of(2024, 8), "quarter");
+
+        assertEquals(LocalDate.of(2024, 1, 1), report.getFrom());
+        assertEquals(LocalDate.of(2024, 9, 30), report.getTo());
+        assertEquals(42, report.getTotalCents());
+        assertEquals(5, report.getCount());
+        assertEquals(3, report.getPeriods().size());
+
+        var first = report.getPeriods().get(0);
+        assertEquals(35, first.getTotalCents());
+        assertEquals(LocalDate.of(2024, 3, 31), first.getEnd());
+        assertEquals("Ana", first.getAccounts().get(0).getAccountName());
+        assertEquals(30, first.getAccounts().get(1).getTotalCents());
+        assertEquals(3, first.getAccounts().get(1).getCount());
+
+        assertEquals(0, report.getPeriods().get(1).getCount());
+        assertEquals(List.of(), report.getPeriods().get(1).getAccounts());
+        assertEquals(7, report.getPeriods().get(2).getTotalCents());
+    }
+
+    @Test
+    void rejectsInvertedRangesAndUnknownGranularities() {
+        assertThrows(BadRequestException.class, () -> service.report(1L, YearMonth.of(2024, 5), YearMonth.of(2024, 4), "month"));
+        assertThrows(BadRequestException.class, () -> service.report(1L, null, null, "week"));
+        assertThrows(BadRequestException.class, () -> service.report(1L, YearMonth.of(1900, 1), YearMonth.of(2024, 1), "month"));
+    }
+
+    private static MonthlyTotalRow row(String month, long accountId, String accountName, long totalCents, long count) {
+        return new MonthlyTotalRow(YearMonth.parse(month).atDay(1), accountId, accountName, totalCents, count);
+    }
+}
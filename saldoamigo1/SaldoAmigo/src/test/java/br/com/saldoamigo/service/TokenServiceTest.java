@@ -0,0 +1,45 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.model.UserModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenService tokenService = new TokenService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenService, "secret", "test-secret");
+        ReflectionTestUtils.setField(tokenService, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", meterRegistry);
+        tokenService.init();
+    }
+
+    @Test
+    void repeatedValidationIsServedFromCache() {
+        var user = new UserModel();
+        user.setEmail("maria@saldoamigo.com");
+        var token = tokenService.generateToken(user);
+
+        assertEquals("maria@saldoamigo.com", tokenService.validateToken(token));
+        assertEquals("maria@saldoamigo.com", tokenService.validateToken(token));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void invalidTokenIsRejectedAndNotCached() {
+        assertEquals("", tokenService.validateToken("invalid.token.value"));
+        assertEquals("", tokenService.validateToken("invalid.token.value"));
+
+        assertEquals(0.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final GroupBalanceRepository groupBalanceRepository = mock(GroupBalanceRepository.class);
+
+    private final TransactionBatchWriter writer = new TransactionBatchWriter();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writer, "groupBalanceRepository", groupBalanceRepository);
+        ReflectionTestUtils.setField(writer, "groupMonthlyTotalRepository", mock(GroupMonthlyTotalRepository.class));
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 50);
+        ReflectionTestUtils.setField(writer, "maxDelay", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(writer, "timeout", Duration.ofSeconds(5));
+        when(transactionTemplate.execute(any())).thenAnswer(call -> ((TransactionCallback<?>) call.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyInt())).thenAnswer(call -> {
+            int count = call.getArgument(2);
+            long first = sequence.getAndAdd(count);
+            return LongStream.range(first + 1, first + count + 1).boxed().toList();
+        });
+        ReflectionTestUtils.invokeMethod(writer, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(writer, "shutdown");
+    }
+
+    @Test
+    void concurrentCreatesShareCommitsAndGetTheirOwnIds() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(20);
+        List<Future<TransactionDto>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(clients.submit(() -> writer.create(transaction(1250))));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<TransactionDto> result : results) ids.add(result.get().getId());
+        clients.shutdown();
+
+        assertEquals(100, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id >= 1 && id <= 100));
+        verify(transactionTemplate, atMost(50)).execute(any());
+    }
+
+    @Test
+    void balancesAreUpdatedOncePerAccountOfTheBatch() {
+        writer.create(transaction(1250));
+
+        verify(groupBalanceRepository).add(eq(1L), eq(7L), eq(1250L), eq(1L), eq(LocalDate.now()));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    private static TransactionDto transaction(long valueCents) {
+        return new TransactionDto(0, valueCents, null, new AccountReferenceDto(7, null), new GroupReferenceDto(1L, null), 0);
+    }
+}
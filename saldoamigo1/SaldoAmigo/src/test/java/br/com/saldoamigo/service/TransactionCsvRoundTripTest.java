@@ -0,0 +1,114 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.ImportReportDto;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import br.com.saldoamigo.repository.GroupRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Um CSV exportado precisa ser aceito pela importação sem ajustes
+class TransactionCsvRoundTripTest {
+
+    private final TransactionExportService exportService = new TransactionExportService();
+
+    private final TransactionImportService importService = new TransactionImportService();
+
+    private final JdbcTemplate cursorTemplate = mock(JdbcTemplate.class);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final PreparedStatement insert = mock(PreparedStatement.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(call -> {
+            ((Consumer<TransactionStatus>) call.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        GroupRepository groupRepository = mock(GroupRepository.class);
+        when(groupRepository.existsById(1L)).thenReturn(true);
+        ReflectionTestUtils.setField(exportService, "groupRepository", groupRepository);
+        ReflectionTestUtils.setField(exportService, "cursorTemplate", cursorTemplate);
+        ReflectionTestUtils.setField(exportService, "readOnlyTransaction", transactionTemplate);
+
+        NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of(1L, 7L));
+        doAnswer(call -> {
+            ParameterizedPreparedStatementSetter<Object> setter = call.getArgument(3);
+            for (Object row : (Collection<Object>) call.getArgument(1)) setter.setValues(insert, row);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "namedJdbcTemplate", namedJdbcTemplate);
+        ReflectionTestUtils.setField(importService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(importService, "groupBalanceRepository", mock(GroupBalanceRepository.class));
+        ReflectionTestUtils.setField(importService, "groupMonthlyTotalRepository", mock(GroupMonthlyTotalRepository.class));
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(importService, "chunkSize", 500);
+    }
+
+    @Test
+    void exportedCsvImportsBack() throws Exception {
+        // Colunas da consulta de exportação: id, value_cents, date, account_id, group_id
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(101L, 102L);
+        when(resultSet.getLong(2)).thenReturn(1250L, -5L);
+        when(resultSet.getString(3)).thenReturn("2024-03-15", "2024-03-16");
+        when(resultSet.getLong(4)).thenReturn(7L, 7L);
+        when(resultSet.getLong(5)).thenReturn(1L, 1L);
+        doAnswer(call -> {
+            RowCallbackHandler handler = call.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(cursorTemplate).query(anyString(), any(RowCallbackHandler.class), eq(1L));
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        exportService.exportByGroupId(1L, "csv").writeTo(exported);
+        assertTrue(exported.toString().startsWith(TransactionImportService.CSV_HEADER + "\n"), exported.toString());
+
+        ImportReportDto report = importService.importCsv(new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(2, report.getImported(), report.getErrors().toString());
+        assertEquals(0, report.getFailed());
+        verify(insert).setLong(1, 1250L);
+        verify(insert).setDate(2, Date.valueOf("2024-03-15"));
+        verify(insert).setLong(1, -5L);
+        verify(insert).setDate(2, Date.valueOf("2024-03-16"));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.TransactionCursor;
+import br.com.saldoamigo.dto.TransactionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionFeedServiceTest {
+
+    private static final TransactionCursor CURSOR_AFTER_2 = new TransactionCursor(LocalDate.of(2024, 1, 2), 2);
+
+    private static final TransactionCursor CURSOR_AFTER_4 = new TransactionCursor(LocalDate.of(2024, 1, 4), 4);
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+
+    private final TransactionFeedService feed = new TransactionFeedService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(feed, "transactionService", transactionService);
+        ReflectionTestUtils.setField(feed, "chunkSize", 2);
+        when(transactionService.findByGroupIdAfter(eq(1L), isNull(), eq(2), eq(Sort.Direction.ASC)))
+                .thenReturn(slice(true, transaction(1), transaction(2)));
+        when(transactionService.findByGroupIdAfter(eq(1L), eq(CURSOR_AFTER_2), eq(2), eq(Sort.Direction.ASC)))
+                .thenReturn(slice(true, transaction(3), transaction(4)));
+        when(transactionService.findByGroupIdAfter(eq(1L), eq(CURSOR_AFTER_4), eq(2), eq(Sort.Direction.ASC)))
+                .thenReturn(slice(false, transaction(5)));
+    }
+
+    // O flatMapIterable pode buscar um bloco adiante enquanto o cliente consome o atual, nunca dois
+    @Test
+    void readsAtMostOneChunkAheadOfTheClient() {
+        StepVerifier.create(feed.streamByGroupId(1L, Sort.Direction.ASC), 1)
+                .expectNextMatches(transaction -> transaction.getId() == 1)
+                .then(() -> verify(transactionService, never()).findByGroupIdAfter(eq(1L), eq(CURSOR_AFTER_4), eq(2), any()))
+                .thenRequest(4)
+                .expectNextMatches(transaction -> transaction.getId() == 2)
+                .expectNextMatches(transaction -> transaction.getId() == 3)
+                .expectNextMatches(transaction -> transaction.getId() == 4)
+                .expectNextMatches(transaction -> transaction.getId() == 5)
+                .verifyComplete();
+
+        verify(transactionService, timeout(1000)).findByGroupIdAfter(eq(1L), eq(CURSOR_AFTER_4), eq(2), any());
+    }
+
+    private static SliceImpl<TransactionDto> slice(boolean hasNext, TransactionDto... content) {
+        return new SliceImpl<>(List.of(content), PageRequest.of(0, 2), hasNext);
+    }
+
+    private static TransactionDto transaction(long id) {
+        TransactionDto transaction = new TransactionDto();
+        transaction.setId(id);
+        transaction.setDate(LocalDate.of(2024, 1, (int) id));
+        return transaction;
+    }
+}
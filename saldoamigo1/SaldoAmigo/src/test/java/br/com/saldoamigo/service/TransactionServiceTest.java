@@ -0,0 +1,20 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionServiceTest {
+
+    private final TransactionService service = new TransactionService();
+
+    // Validado antes de qualquer consulta, então o serviço não precisa de repositórios aqui
+    @Test
+    void nonPositivePageSizeIsRejected() {
+        assertThrows(BadRequestException.class, () -> service.findAfter(null, 0, Sort.Direction.ASC));
+        assertThrows(BadRequestException.class, () -> service.findByAccountIdAfter(1L, null, -1, Sort.Direction.DESC));
+        assertThrows(BadRequestException.class, () -> service.findByGroupIdAfter(1L, null, 0, Sort.Direction.ASC));
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.saldoamigo.service;
+
+import br.com.saldoamigo.dto.UserReferenceDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsernameIndexServiceTest {
+
+    private final UsernameIndexService index = new UsernameIndexService();
+
+    @BeforeEach
+    void setUp() {
+        index.load(List.of(
+                new UserReferenceDto(1, "Maria"),
+                new UserReferenceDto(2, "mariana"),
+                new UserReferenceDto(3, "Marcos"),
+                new UserReferenceDto(4, "Ana")));
+    }
+
+    @Test
+    void completesPrefixIgnoringCaseInAlphabeticalOrder() {
+        assertEquals(List.of("Marcos", "Maria", "mariana"), usernames(index.complete("MAR", 10)));
+        assertEquals(List.of("Marcos"), usernames(index.complete("mar", 1)));
+        assertTrue(index.complete("z", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemoveKeepIndexCurrent() {
+        index.put(5, "Marta");
+        index.put(1, "Beatriz");
+        index.remove(3);
+
+        assertEquals(List.of("mariana", "Marta"), usernames(index.complete("mar", 10)));
+        assertEquals(List.of("Beatriz"), usernames(index.complete("b", 10)));
+    }
+
+    private static List<String> usernames(List<UserReferenceDto> users) {
+        return users.stream().map(UserReferenceDto::getUsername).toList();
+    }
+}
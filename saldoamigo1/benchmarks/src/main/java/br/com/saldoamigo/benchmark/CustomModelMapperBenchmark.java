@@ -0,0 +1,55 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.dto.UserDto;
+import br.com.saldoamigo.mapper.CustomModelMapper;
+import br.com.saldoamigo.model.AccountModel;
+import br.com.saldoamigo.model.GroupModel;
+import br.com.saldoamigo.model.TransactionModel;
+import br.com.saldoamigo.model.UserModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Compara o ModelMapper reflexivo com os conversores especializados do CustomModelMapper.
+// Execute com: java -jar benchmarks/target/benchmarks.jar CustomModelMapper -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomModelMapperBenchmark {
+
+    private UserModel user;
+    private TransactionModel transaction;
+
+    @Setup
+    public void setup() {
+        user = new UserModel(1L, "maria", "maria@saldoamigo.com", "17999990000", "$2a$10$hash", UserModel.UserRole.user, 0);
+        var account = new AccountModel(2L, "Conta da Maria", "maria@saldoamigo.com", "Jales", user, 0);
+        var group = new GroupModel(3L, "Viagem", "Viagem de fim de ano", user, 0);
+        transaction = new TransactionModel(4L, 12550, LocalDate.of(2024, 12, 20), account, group, 0);
+    }
+
+    @Benchmark
+    public UserDto userReflective() {
+        return CustomModelMapper.mapper.map(user, UserDto.class);
+    }
+
+    @Benchmark
+    public UserDto userSpecialized() {
+        return CustomModelMapper.parseObject(user, UserDto.class);
+    }
+
+    @Benchmark
+    public TransactionDto transactionReflective() {
+        return CustomModelMapper.mapper.map(transaction, TransactionDto.class);
+    }
+
+    @Benchmark
+    public TransactionDto transactionSpecialized() {
+        return CustomModelMapper.parseObject(transaction, TransactionDto.class);
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import br.com.saldoamigo.repository.GroupBalanceRepository;
+import br.com.saldoamigo.repository.GroupMonthlyTotalRepository;
+import br.com.saldoamigo.service.TransactionBatchWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Criação de transações por 32 clientes contra um Postgres embutido: um commit por requisição (como
+// o POST /transactions sem a gravação em grupo) contra o TransactionBatchWriter. A vazão principal
+// é de inserts/s; o contador "commits" mostra quantos commits/s o banco precisou fazer para isso.
+// Os dois lados atualizam group_balances e group_monthly_totals com as consultas dos repositórios.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(32)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final String INSERT_TRANSACTION = "insert into transactions (value_cents, date, account_id, group_id) values (?, ?, ?, ?) returning id";
+
+    private static final int ACCOUNTS = 8;
+
+    @Param({"50", "200"})
+    private int maxBatchSize;
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private GroupBalanceRepository groupBalanceRepository;
+    private GroupMonthlyTotalRepository groupMonthlyTotalRepository;
+    private MeterRegistry meterRegistry;
+    private TransactionBatchWriter writer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Commits {
+        public long commits;
+
+        private double baseline;
+
+        @Setup(Level.Iteration)
+        public void reset(GroupCommitBenchmark benchmark) {
+            commits = 0;
+            baseline = benchmark.writerCommits();
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        dataSource.setUsername("postgres");
+        dataSource.setMaximumPoolSize(20);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (id, username, email, password) values (1, 'maria', 'maria@saldoamigo.com', 'secret')");
+        jdbcTemplate.update("insert into groups (id, name, user_id) values (1, 'Almoço', 1)");
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            jdbcTemplate.update("insert into accounts (id, name, pix_key, city, user_id) values (?, ?, ?, 'Jales', 1)", i, "Conta " + i, "pix" + i);
+        }
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        groupBalanceRepository = nativeQueries(GroupBalanceRepository.class, namedJdbcTemplate);
+        groupMonthlyTotalRepository = nativeQueries(GroupMonthlyTotalRepository.class, namedJdbcTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+
+        writer = new TransactionBatchWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(writer, "groupBalanceRepository", groupBalanceRepository);
+        ReflectionTestUtils.setField(writer, "groupMonthlyTotalRepository", groupMonthlyTotalRepository);
+        ReflectionTestUtils.setField(writer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(writer, "maxDelay", Duration.ofMillis(2));
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10_000);
+        ReflectionTestUtils.setField(writer, "timeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.invokeMethod(writer, "init");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ReflectionTestUtils.invokeMethod(writer, "shutdown");
+        dataSource.close();
+        postgres.close();
+    }
+
+    // Um commit por transação criada, com as threads disputando o pool e as linhas de saldo do grupo
+    @Benchmark
+    public Long perRequestCommit(Commits commits, ThreadParams thread) {
+        long account = 1 + thread.getThreadIndex() % ACCOUNTS;
+        LocalDate today = LocalDate.now();
+        Long id = transactionTemplate.execute(status -> {
+            Long inserted = jdbcTemplate.queryForObject(INSERT_TRANSACTION, Long.class, 1250L, Date.valueOf(today), account, 1L);
+            groupBalanceRepository.add(1L, account, 1250L, 1, today);
+            groupMonthlyTotalRepository.add(1L, account, today.withDayOfMonth(1), 1250L, 1);
+            return inserted;
+        });
+        commits.commits++;
+        return id;
+    }
+
+    @Benchmark
+    public TransactionDto groupCommit(Commits commits, ThreadParams thread) {
+        long account = 1 + thread.getThreadIndex() % ACCOUNTS;
+        TransactionDto created = writer.create(new TransactionDto(0, 1250L, null,
+                new AccountReferenceDto(account, null), new GroupReferenceDto(1L, null), 0));
+        // Os commits são do escritor; só a primeira thread reporta, para não somar o mesmo número 32 vezes
+        if (thread.getThreadIndex() == 0) commits.commits = (long) (writerCommits() - commits.baseline);
+        return created;
+    }
+
+    double writerCommits() {
+        return meterRegistry.get("transactions.group-commit.commits").counter().count();
+    }
+
+    // Implementa os métodos @Modifying dos repositórios executando a consulta nativa do @Query via JDBC
+    @SuppressWarnings("unchecked")
+    private static <T> T nativeQueries(Class<T> repository, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (proxy, method, args) -> {
+            Query query = method.getAnnotation(Query.class);
+            if (query == null || !query.nativeQuery()) throw new UnsupportedOperationException(method.getName());
+            return namedJdbcTemplate.update(query.value(), parameters(method, args));
+        });
+    }
+
+    private static MapSqlParameterSource parameters(Method method, Object[] args) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        Parameter[] declared = method.getParameters();
+        for (int i = 0; i < declared.length; i++) {
+            parameters.addValue(declared[i].getAnnotation(org.springframework.data.repository.query.Param.class).value(), args[i]);
+        }
+        return parameters;
+    }
+}
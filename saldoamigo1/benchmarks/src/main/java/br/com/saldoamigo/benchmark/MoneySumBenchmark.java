@@ -0,0 +1,84 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.repository.projection.TransactionRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Soma dos valores de um grupo grande em cada representação: centavos em long (atual), double e
+// BigDecimal (como vinham do numeric) e Long em stream com reduce, que encaixota a cada soma.
+// Rodar com "-prof gc" mostra a alocação por operação, que deve ser zero nos casos em long.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneySumBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private long[] cents;
+    private List<TransactionRow> rows;
+    private List<Long> boxed;
+    private double[] doubles;
+    private BigDecimal[] decimals;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        cents = new long[size];
+        rows = new ArrayList<>(size);
+        boxed = new ArrayList<>(size);
+        doubles = new double[size];
+        decimals = new BigDecimal[size];
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < size; i++) {
+            long value = 1 + random.nextLong(50_000);
+            cents[i] = value;
+            rows.add(new TransactionRow(i, value, date, i % 4, "Conta", 1, "Viagem", 0));
+            boxed.add(value);
+            doubles[i] = value / 100.0;
+            decimals[i] = BigDecimal.valueOf(value, 2);
+        }
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+        for (long value : cents) total += value;
+        return total;
+    }
+
+    @Benchmark
+    public long sumRowCents() {
+        long total = 0;
+        for (TransactionRow row : rows) total += row.valueCents();
+        return total;
+    }
+
+    @Benchmark
+    public Long sumBoxedStream() {
+        return boxed.stream().reduce(0L, Long::sum);
+    }
+
+    @Benchmark
+    public double sumDoubles() {
+        double total = 0;
+        for (double value : doubles) total += value;
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimals() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal value : decimals) total = total.add(value);
+        return total;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.dto.AccountReferenceDto;
+import br.com.saldoamigo.dto.GroupReferenceDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.Link;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização Jackson de Page<TransactionDto>, com as mesmas opções de data do Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Page<TransactionDto> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<TransactionDto> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransactionDto transaction = new TransactionDto();
+            transaction.setId(i);
+            transaction.setValueCents(1000L + i % 9000);
+            transaction.setDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            transaction.setAccount(new AccountReferenceDto(i % 7, "Conta " + i % 7));
+            transaction.setGroup(new GroupReferenceDto(1, "Viagem"));
+            transaction.add(Link.of("http://localhost:8888/transactions/" + i).withSelfRel());
+            content.add(transaction);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size), size * 10L);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.controller.AccountController;
+import br.com.saldoamigo.controller.GroupController;
+import br.com.saldoamigo.controller.TransactionController;
+import br.com.saldoamigo.dto.AccountDto;
+import br.com.saldoamigo.dto.GroupDto;
+import br.com.saldoamigo.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo por link "self" numa página de 1000 DTOs: o linkTo(methodOn(...)) por elemento, usado antes,
+// contra o buildSelfLinks de cada controller, que resolve a base uma vez e só concatena o id
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(SelfLinkBenchmark.PAGE)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelfLinkBenchmark {
+
+    static final int PAGE = 1000;
+
+    private final AccountController accountController = new AccountController();
+    private final GroupController groupController = new GroupController();
+    private final TransactionController transactionController = new TransactionController();
+
+    private List<AccountDto> accounts;
+    private List<GroupDto> groups;
+    private List<TransactionDto> transactions;
+
+    @Setup
+    public void setup() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions/find/group/1");
+        request.setServerName("api.saldoamigo.com.br");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        accounts = new ArrayList<>(PAGE);
+        groups = new ArrayList<>(PAGE);
+        transactions = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            AccountDto account = new AccountDto();
+            account.setId(i);
+            accounts.add(account);
+            GroupDto group = new GroupDto();
+            group.setId(i);
+            groups.add(group);
+            TransactionDto transaction = new TransactionDto();
+            transaction.setId(i);
+            transactions.add(transaction);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<TransactionDto> methodOnPerElement() {
+        for (TransactionDto transaction : transactions) {
+            transaction.removeLinks();
+            transaction.add(WebMvcLinkBuilder.linkTo(
+                    WebMvcLinkBuilder.methodOn(TransactionController.class).findById(transaction.getId())
+            ).withSelfRel());
+        }
+        return transactions;
+    }
+
+    @Benchmark
+    public List<AccountDto> accountPage() {
+        accounts.forEach(AccountDto::removeLinks);
+        ReflectionTestUtils.invokeMethod(accountController, "buildSelfLinks", accounts);
+        return accounts;
+    }
+
+    @Benchmark
+    public List<GroupDto> groupPage() {
+        groups.forEach(GroupDto::removeLinks);
+        ReflectionTestUtils.invokeMethod(groupController, "buildSelfLinks", groups);
+        return groups;
+    }
+
+    @Benchmark
+    public List<TransactionDto> transactionPage() {
+        transactions.forEach(TransactionDto::removeLinks);
+        ReflectionTestUtils.invokeMethod(transactionController, "buildSelfLinks", transactions);
+        return transactions;
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.saldoamigo.benchmark;
+
+import br.com.saldoamigo.model.UserModel;
+import br.com.saldoamigo.service.TokenService;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Geração e validação de JWT; "uncached" esvazia o cache antes de cada chamada para medir a verificação HMAC completa
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService cached;
+    private Cache<String, ?> verifiedTokens;
+    private UserModel user;
+    private String token;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        cached = tokenService(10_000);
+        verifiedTokens = (Cache<String, ?>) ReflectionTestUtils.getField(cached, "verifiedTokens");
+        user = new UserModel();
+        user.setEmail("maria@saldoamigo.com");
+        token = cached.generateToken(user);
+    }
+
+    private static TokenService tokenService(long cacheMaximumSize) {
+        TokenService service = new TokenService();
+        ReflectionTestUtils.setField(service, "secret", "benchmark-secret");
+        ReflectionTestUtils.setField(service, "cacheMaximumSize", cacheMaximumSize);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateTokenCached() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateTokenUncached() {
+        verifiedTokens.invalidate(token);
+        return cached.validateToken(token);
+    }
+}
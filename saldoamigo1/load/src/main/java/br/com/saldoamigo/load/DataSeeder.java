@@ -0,0 +1,238 @@
+package br.com.saldoamigo.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+// Popula o schema do Flyway via COPY. Ids são determinísticos: o usuário u é dono dos grupos
+// (u-1)*groupsPerUser+1.. e das contas (u-1)*accountsPerUser+1.., e divide cada grupo com os
+// próximos MEMBERS-1 usuários. Poucos grupos concentram a maior parte das transações (Zipf) e as
+// datas se concentram nos meses mais recentes, com mais movimento nos fins de semana.
+final class DataSeeder {
+
+    static final String EMAIL_DOMAIN = "@carga.saldoamigo.com";
+
+    static final String PASSWORD = "carga-123";
+
+    private static final int MEMBERS = 4;
+
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique",
+            "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sabrina", "Thiago",
+            "Vitória", "William"};
+
+    static final String[] SURNAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida"};
+
+    private static final String[] CITIES = {"São Paulo", "Rio de Janeiro", "Belo Horizonte", "Curitiba", "Porto Alegre",
+            "Salvador", "Recife", "Fortaleza", "Goiânia", "Campinas", "Jales", "Ribeirão Preto"};
+
+    private static final String[] GROUP_NAMES = {"Viagem", "Churrasco", "Aluguel", "Mercado", "Festa", "Futebol",
+            "Condomínio", "Presente", "Formatura", "Academia"};
+
+    private final LoadSettings settings;
+
+    private final SplittableRandom random;
+
+    DataSeeder(LoadSettings settings) {
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.randomSeed());
+    }
+
+    // Retorna false quando o banco já tem usuários (ex.: load.data-dir reaproveitado)
+    boolean seed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select exists (select 1 from users)")) {
+            resultSet.next();
+            if (resultSet.getBoolean(1)) return false;
+        }
+        connection.setAutoCommit(false);
+        PGConnection pg = connection.unwrap(PGConnection.class);
+
+        long start = System.nanoTime();
+        copyUsers(pg);
+        copyGroups(pg);
+        copyAccounts(pg);
+        log("usuários, grupos e contas", settings.users() * (1L + settings.groupsPerUser() + settings.accountsPerUser()), start);
+
+        start = System.nanoTime();
+        copyTransactions(pg);
+        log("transações", settings.transactions(), start);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select setval(pg_get_serial_sequence('users', 'id'), (select max(id) from users))");
+            statement.execute("select setval(pg_get_serial_sequence('groups', 'id'), (select max(id) from groups))");
+            statement.execute("select setval(pg_get_serial_sequence('transactions', 'id'), greatest(1, (select max(id) from transactions)))");
+            statement.execute("insert into group_balances (group_id, account_id, total_cents, count, last_date) " +
+                    "select group_id, account_id, sum(value_cents), count(*), max(date) from transactions " +
+                    "group by group_id, account_id on conflict (group_id, account_id) do nothing");
+            statement.execute("insert into group_monthly_totals (group_id, month, account_id, total_cents, count) " +
+                    "select group_id, date_trunc('month', date)::date, account_id, sum(value_cents), count(*) from transactions " +
+                    "group by 1, 2, 3 on conflict (group_id, month, account_id) do nothing");
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+        return true;
+    }
+
+    private void copyUsers(PGConnection pg) throws SQLException {
+        // BCrypt é caro de propósito: um único hash serve para todos os usuários
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Copy copy = new Copy(pg, "copy users (id, username, email, password, role) from stdin")) {
+            for (int u = 1; u <= settings.users(); u++) {
+                copy.row(u, FIRST_NAMES[u % FIRST_NAMES.length].toLowerCase() + "." + SURNAMES[(u / FIRST_NAMES.length) % SURNAMES.length].toLowerCase() + u,
+                        email(u), hash, "user");
+            }
+        }
+    }
+
+    private void copyGroups(PGConnection pg) throws SQLException {
+        try (Copy copy = new Copy(pg, "copy groups (id, name, description, user_id) from stdin")) {
+            long id = 0;
+            for (int u = 1; u <= settings.users(); u++) {
+                for (int g = 0; g < settings.groupsPerUser(); g++) {
+                    id++;
+                    copy.row(id, GROUP_NAMES[random.nextInt(GROUP_NAMES.length)] + " " + id, "Grupo de carga", u);
+                }
+            }
+        }
+    }
+
+    private void copyAccounts(PGConnection pg) throws SQLException {
+        try (Copy copy = new Copy(pg, "copy accounts (id, name, pix_key, city, user_id) from stdin")) {
+            long id = 0;
+            for (int u = 1; u <= settings.users(); u++) {
+                for (int a = 0; a < settings.accountsPerUser(); a++) {
+                    id++;
+                    String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+                    String pixKey = a == 0 ? email(u) : String.format("%011d", id);
+                    copy.row(id, name, pixKey, CITIES[random.nextInt(CITIES.length)], u);
+                }
+            }
+        }
+    }
+
+    private void copyTransactions(PGConnection pg) throws SQLException {
+        int groups = settings.users() * settings.groupsPerUser();
+        double[] cumulative = zipfCumulative(groups);
+        int[] groupByRank = shuffledIds(groups);
+        LocalDate today = LocalDate.now();
+        double meanAge = settings.days() / 4.0;
+        try (Copy copy = new Copy(pg, "copy transactions (value_cents, date, account_id, group_id) from stdin")) {
+            for (long t = 0; t < settings.transactions(); t++) {
+                int group = groupByRank[rank(cumulative, random.nextDouble())];
+                int owner = (group - 1) / settings.groupsPerUser() + 1;
+                int member = (owner - 1 + random.nextInt(MEMBERS)) % settings.users() + 1;
+                long account = (long) (member - 1) * settings.accountsPerUser() + 1 + random.nextInt(settings.accountsPerUser());
+                copy.row(cents(), date(today, meanAge), account, group);
+            }
+        }
+    }
+
+    private LocalDate date(LocalDate today, double meanAge) {
+        while (true) {
+            long age = Math.min(settings.days() - 1, (long) (-Math.log(1 - random.nextDouble()) * meanAge));
+            LocalDate date = today.minusDays(age);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (weekend || random.nextDouble() < 0.6) return date;
+        }
+    }
+
+    // Log-normal com mediana em torno de R$ 30
+    private long cents() {
+        return Math.max(1, Math.round(Math.exp(3.4 + 0.9 * gaussian()) * 100));
+    }
+
+    private double gaussian() {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double[] zipfCumulative(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) cumulative[i] /= sum;
+        return cumulative;
+    }
+
+    private static int rank(double[] cumulative, double u) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < u) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    // Os grupos mais movimentados ficam espalhados entre os usuários, não nos primeiros ids
+    private int[] shuffledIds(int size) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) ids[i] = i + 1;
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    static String email(long user) {
+        return "usuario" + user + EMAIL_DOMAIN;
+    }
+
+    private static void log(String what, long rows, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Carga de %s: %,d linhas em %.1f s (%,.0f linhas/s)%n", what, rows, seconds, rows / seconds);
+    }
+
+    // COPY em formato texto, enviado em blocos de ~1 MB
+    private static final class Copy implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(CHUNK_BYTES + 1024);
+
+        Copy(PGConnection pg, String sql) throws SQLException {
+            this.copyIn = pg.getCopyAPI().copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buffer.append('\t');
+                buffer.append(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= CHUNK_BYTES) flush();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
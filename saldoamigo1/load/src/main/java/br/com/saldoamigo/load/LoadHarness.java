@@ -0,0 +1,104 @@
+package br.com.saldoamigo.load;
+
+import br.com.saldoamigo.SaldoAmigoApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reproduz carga de produção localmente: sobe um PostgreSQL embarcado (ou usa load.jdbc-url),
+// aplica as migrações do Flyway, popula a massa de dados e roda a API com a carga mista em cada
+// modo de thread pedido, reportando vazão e percentis por endpoint.
+// As requisições seguem uma agenda fixa (load.rate por segundo, somando todos os clientes). As colunas
+// response_* medem do horário previsto até a resposta, incluindo a espera de quem ficou para trás;
+// service_* medem só do envio à resposta.
+//
+// Uso, da pasta saldoamigo1:
+//   mvn -pl load -am install -DskipTests
+//   mvn -pl load exec:java -Dload.transactions=5000000 -Dload.modes=platform,virtual
+//
+// Propriedades (-D), com os valores padrão:
+//   load.jdbc-url/load.jdbc-user/load.jdbc-password   banco existente; sem elas usa o embarcado
+//   load.data-dir                                      diretório do banco embarcado, mantido entre rodadas
+//   load.users=10000 load.groups-per-user=3 load.accounts-per-user=2
+//   load.transactions=1000000 load.days=730 load.random-seed=42
+//   load.modes=platform (platform,virtual compara os dois; virtual exige Java 21+)
+//   load.clients=64 load.rate=500 (requisições/s) load.sample-users=500
+//   load.warmup=10 load.duration=60 (segundos) load.pool-size=20
+//   load.mix=login:5,group-view:55,create-transaction:15,search:25
+//   load.report=target/load-report.csv
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        EmbeddedPostgres embedded = null;
+        String url = settings.jdbcUrl();
+        String user = settings.jdbcUser();
+        String password = settings.jdbcPassword();
+        if (url == null) {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", String.valueOf(settings.poolSize() + 20));
+            if (settings.dataDirectory() != null) {
+                builder.setDataDirectory(settings.dataDirectory()).setCleanDataDirectory(false);
+            }
+            embedded = builder.start();
+            url = embedded.getJdbcUrl("postgres", "postgres");
+            user = "postgres";
+            password = "";
+        }
+
+        try {
+            Flyway.configure().dataSource(url, user, password).load().migrate();
+            List<Workload.Persona> personas;
+            try (Connection connection = DriverManager.getConnection(url, user, password)) {
+                if (!new DataSeeder(settings).seed(connection)) {
+                    System.out.println("Banco já populado, a massa existente será usada.");
+                }
+                personas = Workload.personas(connection, settings.sampleUsers());
+            }
+
+            List<String> rows = new ArrayList<>();
+            rows.add(Workload.Result.CSV_HEADER);
+            for (String mode : settings.modes()) {
+                try (ConfigurableApplicationContext app = start(mode, url, user, password, settings.poolSize())) {
+                    int port = Integer.parseInt(app.getEnvironment().getProperty("local.server.port"));
+                    for (Workload.Result result : new Workload(settings, port).run(personas)) {
+                        rows.add(result.csv(mode));
+                    }
+                }
+            }
+
+            rows.forEach(System.out::println);
+            Files.createDirectories(settings.report().toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(settings.report()))) {
+                rows.forEach(writer::println);
+            }
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode, String url, String user, String password, int poolSize) {
+        if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+            System.out.println("Java " + Runtime.version() + ": threads virtuais exigem Java 21+, o modo virtual rodará como plataforma.");
+        }
+        // Argumentos de linha de comando, que têm precedência sobre o application.yaml
+        return new SpringApplicationBuilder(SaldoAmigoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + user,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.saldoamigo.load;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Parâmetros da rodada, lidos de propriedades de sistema (-Dload.*)
+record LoadSettings(
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        Path dataDirectory,
+        int users,
+        int groupsPerUser,
+        int accountsPerUser,
+        long transactions,
+        int days,
+        long randomSeed,
+        List<String> modes,
+        int clients,
+        int rate,
+        int sampleUsers,
+        int warmupSeconds,
+        int durationSeconds,
+        int poolSize,
+        Map<Operation, Integer> mix,
+        Path report) {
+
+    LoadSettings {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("load.rate deve ser maior que zero!");
+        }
+    }
+
+    static LoadSettings fromSystemProperties() {
+        String dataDirectory = System.getProperty("load.data-dir");
+        return new LoadSettings(
+                System.getProperty("load.jdbc-url"),
+                System.getProperty("load.jdbc-user", "postgres"),
+                System.getProperty("load.jdbc-password", "123456"),
+                dataDirectory == null ? null : Path.of(dataDirectory),
+                Integer.getInteger("load.users", 10_000),
+                Integer.getInteger("load.groups-per-user", 3),
+                Integer.getInteger("load.accounts-per-user", 2),
+                Long.getLong("load.transactions", 1_000_000L),
+                Integer.getInteger("load.days", 730),
+                Long.getLong("load.random-seed", 42L),
+                Arrays.stream(System.getProperty("load.modes", "platform").split(",")).map(String::trim).toList(),
+                Integer.getInteger("load.clients", 64),
+                Integer.getInteger("load.rate", 500),
+                Integer.getInteger("load.sample-users", 500),
+                Integer.getInteger("load.warmup", 10),
+                Integer.getInteger("load.duration", 60),
+                Integer.getInteger("load.pool-size", 20),
+                parseMix(System.getProperty("load.mix", "login:5,group-view:55,create-transaction:15,search:25")),
+                Path.of(System.getProperty("load.report", "target/load-report.csv")));
+    }
+
+    // Formato "operação:peso,operação:peso"
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix inválido: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) mix.put(Operation.of(parts[0].trim()), weight);
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix sem operações!");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.saldoamigo.load;
+
+// Operações do usuário simulado; cada uma faz uma ou mais chamadas à API
+enum Operation {
+    LOGIN("login"),
+    GROUP_VIEW("group-view"),
+    CREATE_TRANSACTION("create-transaction"),
+    SEARCH("search");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) return operation;
+        }
+        throw new IllegalArgumentException("Operação desconhecida: " + key);
+    }
+}
@@ -0,0 +1,269 @@
+package br.com.saldoamigo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Clientes em laço aberto: cada um assume um usuário da massa, faz login e sorteia operações
+// segundo load.mix, com as requisições em horários fixos que somam load.rate por segundo.
+// O tempo de resposta conta do horário previsto, e não do envio: quando a API atrasa, a espera
+// das requisições seguintes entra na medida em vez de sumir. O tempo de serviço, do envio à
+// resposta, é registrado à parte.
+final class Workload {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String LOGIN = "POST /auth/login";
+    private static final String GROUP = "GET /groups/{id}";
+    private static final String GROUP_SUMMARY = "GET /groups/{id}/summary";
+    private static final String GROUP_REPORT = "GET /groups/{id}/report";
+    private static final String GROUP_TRANSACTIONS = "GET /transactions/find/group/{id}";
+    private static final String CREATE_TRANSACTION = "POST /transactions";
+    private static final String ACCOUNT_SEARCH = "GET /accounts/find/name/{name}";
+
+    record Persona(long userId, String email, long[] groupIds, long[] accountIds) {
+    }
+
+    record Result(String endpoint, Histogram responseTimes, Histogram serviceTimes, long errors, double seconds) {
+
+        static final String CSV_HEADER = "mode,endpoint,requests,errors,throughput_rps," +
+                "response_p50_ms,response_p90_ms,response_p99_ms,response_p999_ms,response_max_ms," +
+                "service_p50_ms,service_p99_ms,service_max_ms";
+
+        String csv(String mode) {
+            return String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    mode, endpoint, responseTimes.getTotalCount(), errors, responseTimes.getTotalCount() / seconds,
+                    millis(responseTimes, 50), millis(responseTimes, 90), millis(responseTimes, 99),
+                    millis(responseTimes, 99.9), responseTimes.getMaxValue() / 1e6,
+                    millis(serviceTimes, 50), millis(serviceTimes, 99), serviceTimes.getMaxValue() / 1e6);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    private final LoadSettings settings;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String base;
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    private volatile boolean running = true;
+
+    Workload(LoadSettings settings, int port) {
+        this.settings = settings;
+        this.base = "http://localhost:" + port;
+        for (String name : List.of(LOGIN, GROUP, GROUP_SUMMARY, GROUP_REPORT, GROUP_TRANSACTIONS, CREATE_TRANSACTION, ACCOUNT_SEARCH)) {
+            endpoints.put(name, new Endpoint());
+        }
+    }
+
+    // Amostra de usuários da massa com os grupos de que são donos e as próprias contas
+    static List<Persona> personas(Connection connection, int limit) throws SQLException {
+        String sql = "select u.id, u.email, " +
+                "array(select g.id from groups g where g.user_id = u.id order by g.id), " +
+                "array(select a.id from accounts a where a.user_id = u.id order by a.id) " +
+                "from users u where u.email like ? order by random() limit ?";
+        List<Persona> personas = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, "%" + DataSeeder.EMAIL_DOMAIN);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long[] groups = longs(resultSet.getArray(3));
+                    long[] accounts = longs(resultSet.getArray(4));
+                    if (groups.length > 0 && accounts.length > 0) {
+                        personas.add(new Persona(resultSet.getLong(1), resultSet.getString(2), groups, accounts));
+                    }
+                }
+            }
+        }
+        if (personas.isEmpty()) {
+            throw new IllegalStateException("Nenhum usuário da massa de carga encontrado!");
+        }
+        return personas;
+    }
+
+    List<Result> run(List<Persona> personas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(settings.clients());
+        // Cada cliente faz load.rate / load.clients requisições por segundo, defasado dos demais
+        long interval = Math.round(settings.clients() * 1e9 / settings.rate());
+        long first = System.nanoTime();
+        for (int c = 0; c < settings.clients(); c++) {
+            Persona persona = personas.get(c % personas.size());
+            SplittableRandom random = new SplittableRandom(settings.randomSeed() + c);
+            Schedule schedule = new Schedule(first + interval * c / settings.clients(), interval);
+            executor.execute(() -> client(persona, random, schedule));
+        }
+
+        TimeUnit.SECONDS.sleep(settings.warmupSeconds());
+        endpoints.values().forEach(Endpoint::reset);
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(settings.durationSeconds());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<Result> results = new ArrayList<>();
+        endpoints.forEach((name, endpoint) -> results.add(new Result(name, endpoint.responseTimes.getIntervalHistogram(),
+                endpoint.serviceTimes.getIntervalHistogram(), endpoint.errors.sumThenReset(), seconds)));
+
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return results;
+    }
+
+    private void client(Persona persona, SplittableRandom random, Schedule schedule) {
+        Operation[] operations = settings.mix().keySet().toArray(Operation[]::new);
+        int[] weights = settings.mix().values().stream().mapToInt(Integer::intValue).toArray();
+        int total = 0;
+        for (int weight : weights) total += weight;
+
+        String token = login(persona, schedule);
+        while (running) {
+            int pick = random.nextInt(total);
+            int i = 0;
+            while (pick >= weights[i]) pick -= weights[i++];
+            switch (operations[i]) {
+                case LOGIN -> token = login(persona, schedule);
+                case GROUP_VIEW -> {
+                    long group = persona.groupIds()[random.nextInt(persona.groupIds().length)];
+                    call(GROUP, get("/groups/" + group, token), schedule);
+                    call(GROUP_SUMMARY, get("/groups/" + group + "/summary", token), schedule);
+                    call(GROUP_REPORT, get("/groups/" + group + "/report?granularity=month", token), schedule);
+                    call(GROUP_TRANSACTIONS, get("/transactions/find/group/" + group + "?size=20&direction=desc", token), schedule);
+                }
+                case CREATE_TRANSACTION -> {
+                    long group = persona.groupIds()[random.nextInt(persona.groupIds().length)];
+                    long account = persona.accountIds()[random.nextInt(persona.accountIds().length)];
+                    String body = "{\"valueCents\":" + (1 + random.nextInt(20_000)) + ",\"date\":\"" + LocalDate.now()
+                            + "\",\"account\":{\"id\":" + account + "},\"group\":{\"id\":" + group + "}}";
+                    call(CREATE_TRANSACTION, post("/transactions", body, token), schedule);
+                }
+                case SEARCH -> {
+                    String name = DataSeeder.SURNAMES[random.nextInt(DataSeeder.SURNAMES.length)];
+                    call(ACCOUNT_SEARCH, get("/accounts/find/name/" + name.substring(0, 4).toLowerCase() + "?size=10", token), schedule);
+                }
+            }
+        }
+    }
+
+    private String login(Persona persona, Schedule schedule) {
+        String body = "{\"email\":\"" + persona.email() + "\",\"password\":\"" + DataSeeder.PASSWORD + "\"}";
+        HttpResponse<String> response = call(LOGIN, post("/auth/login", body, null), schedule);
+        if (response == null || response.statusCode() != 200) return null;
+        try {
+            return JSON.readTree(response.body()).path("token").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpResponse<String> call(String endpoint, HttpRequest request, Schedule schedule) {
+        Endpoint target = endpoints.get(endpoint);
+        long intended = schedule.next();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                long end = System.nanoTime();
+                target.responseTimes.recordValue(end - intended);
+                target.serviceTimes.recordValue(end - start);
+            } else {
+                target.errors.increment();
+            }
+            return response;
+        } catch (IOException e) {
+            target.errors.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private static long[] longs(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) longs[i] = ((Number) values[i]).longValue();
+        return longs;
+    }
+
+    // Horários previstos das requisições de um cliente. Um cliente atrasado não pula horários:
+    // envia as pendentes em seguida, e o atraso aparece no tempo de resposta delas.
+    private static final class Schedule {
+        private final long interval;
+        private long next;
+
+        Schedule(long first, long interval) {
+            this.next = first;
+            this.interval = interval;
+        }
+
+        // Espera o próximo horário e o devolve
+        long next() {
+            long intended = next;
+            next += interval;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            return intended;
+        }
+    }
+
+    private static final class Endpoint {
+        private final Recorder responseTimes = new Recorder(3);
+        private final Recorder serviceTimes = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        // Descarta o que foi registrado durante o aquecimento
+        void reset() {
+            responseTimes.reset();
+            serviceTimes.reset();
+            errors.reset();
+        }
+    }
+}